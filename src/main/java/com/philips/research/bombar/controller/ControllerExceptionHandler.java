@@ -5,6 +5,7 @@
 
 package com.philips.research.bombar.controller;
 
+import com.philips.research.bombar.core.BusyException;
 import com.philips.research.bombar.core.NotFoundException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -39,6 +40,16 @@ public class ControllerExceptionHandler {
         return Map.of("reason", exception.getMessage());
     }
 
+    /**
+     * Handles requests that cannot be accepted at this moment.
+     */
+    @ResponseStatus(code = HttpStatus.SERVICE_UNAVAILABLE)
+    @ExceptionHandler(BusyException.class)
+    public Map<String, String> handleBusyException(BusyException exception) {
+        LOG.info(exception.getMessage());
+        return Map.of("reason", exception.getMessage());
+    }
+
     /**
      * Handles request parameter validation failures.
      *
@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) 2020-2021, Koninklijke Philips N.V., https://www.philips.com
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.philips.research.bombar.controller;
+
+import com.philips.research.bombar.core.EvaluationService.EvaluationDto;
+import pl.tlinkowski.annotation.basic.NullOr;
+
+import java.time.Instant;
+import java.util.UUID;
+
+class EvaluationJson {
+    @NullOr UUID id;
+    @NullOr String phase;
+    int projects;
+    int processed;
+    int checked;
+    int failed;
+    double throughput;
+    @NullOr String error;
+    @NullOr Instant created;
+    @NullOr Instant finished;
+
+    @SuppressWarnings("unused")
+    EvaluationJson() {
+    }
+
+    EvaluationJson(EvaluationDto dto) {
+        this.id = dto.id;
+        this.phase = dto.phase;
+        this.projects = dto.projects;
+        this.processed = dto.processed;
+        this.checked = dto.checked;
+        this.failed = dto.failed;
+        this.throughput = dto.throughput;
+        this.error = dto.error;
+        this.created = dto.created;
+        this.finished = dto.finished;
+    }
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright (c) 2020-2021, Koninklijke Philips N.V., https://www.philips.com
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.philips.research.bombar.controller;
+
+import com.philips.research.bombar.core.EvaluationService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+import java.util.UUID;
+
+@RestController
+@CrossOrigin(origins = "*")
+@RequestMapping("/evaluations")
+public class EvaluationsRoute {
+    private final EvaluationService evaluationService;
+
+    public EvaluationsRoute(EvaluationService evaluationService) {
+        this.evaluationService = evaluationService;
+    }
+
+    @PostMapping
+    public ResponseEntity<EvaluationJson> startEvaluation() {
+        final var result = evaluationService.startEvaluation();
+        final var location = URI.create("/evaluations/" + result.id);
+        return ResponseEntity.accepted().location(location).body(new EvaluationJson(result));
+    }
+
+    @GetMapping("{evaluationId}")
+    public EvaluationJson getEvaluation(@PathVariable UUID evaluationId) {
+        final var result = evaluationService.findEvaluation(evaluationId);
+        return new EvaluationJson(result);
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright (c) 2020-2021, Koninklijke Philips N.V., https://www.philips.com
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.philips.research.bombar.controller;
+
+import com.philips.research.bombar.core.ImportService.ImportDto;
+import pl.tlinkowski.annotation.basic.NullOr;
+
+import java.time.Instant;
+import java.util.UUID;
+
+class ImportJson {
+    @NullOr UUID id;
+    @NullOr UUID project;
+    @NullOr String phase;
+    int dependencies;
+    int violations;
+    boolean unchanged;
+    @NullOr String error;
+    @NullOr Instant created;
+    @NullOr Instant finished;
+
+    @SuppressWarnings("unused")
+    ImportJson() {
+    }
+
+    ImportJson(ImportDto dto) {
+        this.id = dto.id;
+        this.project = dto.projectId;
+        this.phase = dto.phase;
+        this.dependencies = dto.dependencies;
+        this.violations = dto.violations;
+        this.unchanged = dto.unchanged;
+        this.error = dto.error;
+        this.created = dto.created;
+        this.finished = dto.finished;
+    }
+}
@@ -0,0 +1,28 @@
+/*
+ * Copyright (c) 2020-2021, Koninklijke Philips N.V., https://www.philips.com
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.philips.research.bombar.controller;
+
+import com.philips.research.bombar.core.ImportService;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+@RestController
+@CrossOrigin(origins = "*")
+@RequestMapping("/imports")
+public class ImportsRoute {
+    private final ImportService importService;
+
+    public ImportsRoute(ImportService importService) {
+        this.importService = importService;
+    }
+
+    @GetMapping("{jobId}")
+    public ImportJson getImport(@PathVariable UUID jobId) {
+        final var result = importService.findImport(jobId);
+        return new ImportJson(result);
+    }
+}
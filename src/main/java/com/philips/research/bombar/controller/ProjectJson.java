@@ -21,6 +21,7 @@ class ProjectJson {
     @NullOr String phase;
     int issues;
     @NullOr List<DependencyJson> packages;
+    @NullOr String cursor;
 
     @SuppressWarnings("unused")
     ProjectJson() {
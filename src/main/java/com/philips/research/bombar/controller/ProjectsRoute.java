@@ -5,15 +5,24 @@
 
 package com.philips.research.bombar.controller;
 
+import com.philips.research.bombar.core.ImportService;
 import com.philips.research.bombar.core.ProjectService;
+import com.philips.research.bombar.core.ProjectService.ProjectCursor;
+import com.philips.research.bombar.core.ProjectService.ProjectDto;
 import org.springframework.boot.web.server.WebServerException;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+import pl.tlinkowski.annotation.basic.NullOr;
 
 import javax.servlet.http.HttpServletRequest;
 import java.io.IOException;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
@@ -23,16 +32,49 @@ import java.util.stream.Collectors;
 @CrossOrigin(origins = "*")
 @RequestMapping("/projects")
 public class ProjectsRoute extends BaseRoute {
-    public ProjectsRoute(ProjectService service) {
+    private static final char CURSOR_SEPARATOR = '/';
+
+    private final ImportService importService;
+
+    public ProjectsRoute(ProjectService service, ImportService importService) {
         super(service);
+        this.importService = importService;
     }
 
     @GetMapping
     public ResultListJson<ProjectJson> getProjects(@RequestParam(name = "q", required = false, defaultValue = "") String fragment,
+                                                   @RequestParam(required = false) @NullOr String after,
                                                    @RequestParam(required = false, defaultValue = "100") int limit) {
-        final var result = projectService.findProjects(fragment, limit);
-        //noinspection ConstantConditions
-        return new ResultListJson<>(ProjectJson.toList(result));
+        final var cursor = (after != null) ? toCursor(after) : null;
+        final var result = projectService.findProjects(fragment, cursor, limit).stream()
+                .map(dto -> {
+                    final var json = new ProjectJson(dto);
+                    json.cursor = cursorOf(dto);
+                    return json;
+                })
+                .collect(Collectors.toList());
+        return new ResultListJson<>(result);
+    }
+
+    /**
+     * Encodes the position of a listed project as an opaque token, so the next page is selected by the values
+     * of this project instead of its current state.
+     */
+    private static String cursorOf(ProjectDto dto) {
+        final var value = ((dto.updated != null) ? dto.updated.toString() : "") + CURSOR_SEPARATOR + dto.id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static ProjectCursor toCursor(String token) {
+        try {
+            final var value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            final var pos = value.indexOf(CURSOR_SEPARATOR);
+            final var updated = value.substring(0, pos);
+            final var id = UUID.fromString(value.substring(pos + 1));
+            return new ProjectCursor(updated.isEmpty() ? null : Instant.parse(updated), id);
+        } catch (RuntimeException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "'" + token + "' is not a valid cursor");
+        }
     }
 
     @PostMapping
@@ -55,9 +97,11 @@ public class ProjectsRoute extends BaseRoute {
     }
 
     @PostMapping("{projectId}/upload")
-    public void uploadSpdx(@PathVariable UUID projectId, @RequestParam("file") MultipartFile file) {
-        try {
-            projectService.importSpdx(projectId, file.getInputStream());
+    public ResponseEntity<ImportJson> uploadSpdx(@PathVariable UUID projectId, @RequestParam("file") MultipartFile file) {
+        try (final var stream = file.getInputStream()) {
+            final var result = importService.startImport(projectId, stream);
+            final var location = URI.create("/imports/" + result.id);
+            return ResponseEntity.accepted().location(location).body(new ImportJson(result));
         } catch (IOException e) {
             throw new WebServerException("File upload failed", e);
         }
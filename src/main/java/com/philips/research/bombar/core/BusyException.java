@@ -0,0 +1,15 @@
+/*
+ * Copyright (c) 2020-2021, Koninklijke Philips N.V., https://www.philips.com
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.philips.research.bombar.core;
+
+/**
+ * Indicates a request cannot be accepted because the service is at its capacity.
+ */
+public class BusyException extends BusinessException {
+    public BusyException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2020-2021, Koninklijke Philips N.V., https://www.philips.com
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.philips.research.bombar.core;
+
+import pl.tlinkowski.annotation.basic.NullOr;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public interface EvaluationService {
+    /**
+     * Starts the (background) license re-evaluation of all projects that were not checked using the current
+     * license definitions, unless an evaluation is already running.
+     *
+     * @return the running evaluation
+     */
+    EvaluationDto startEvaluation();
+
+    /**
+     * @return the status of the indicated evaluation
+     */
+    EvaluationDto findEvaluation(UUID evaluationId);
+
+    class EvaluationDto {
+        public final UUID id;
+        public String phase = "";
+        public int projects;
+        public int processed;
+        public int checked;
+        public int failed;
+        public double throughput;
+        public @NullOr String error;
+        public @NullOr Instant created;
+        public @NullOr Instant finished;
+
+        public EvaluationDto(UUID id) {
+            this.id = id;
+        }
+    }
+}
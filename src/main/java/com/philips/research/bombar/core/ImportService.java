@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2020-2021, Koninklijke Philips N.V., https://www.philips.com
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.philips.research.bombar.core;
+
+import pl.tlinkowski.annotation.basic.NullOr;
+
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.UUID;
+
+public interface ImportService {
+    /**
+     * Schedules the (background) import of a bill-of-materials file into a project.
+     *
+     * @param projectId target project
+     * @param stream    file content, which is consumed before returning
+     * @return the scheduled import job
+     */
+    ImportDto startImport(UUID projectId, InputStream stream);
+
+    /**
+     * @return the status of the indicated import job
+     */
+    ImportDto findImport(UUID jobId);
+
+    class ImportDto {
+        public final UUID id;
+        public final UUID projectId;
+        public String phase = "";
+        public int dependencies;
+        public int violations;
+        public boolean unchanged;
+        public @NullOr String error;
+        public @NullOr Instant created;
+        public @NullOr Instant finished;
+
+        public ImportDto(UUID id, UUID projectId) {
+            this.id = id;
+            this.projectId = projectId;
+        }
+    }
+}
@@ -6,11 +6,14 @@
 package com.philips.research.bombar.core;
 
 import com.philips.research.bombar.core.domain.Dependency;
+import com.philips.research.bombar.core.domain.DependencySummary;
 import com.philips.research.bombar.core.domain.Package;
 import com.philips.research.bombar.core.domain.PackageRef;
 import com.philips.research.bombar.core.domain.Project;
 import pl.tlinkowski.annotation.basic.NullOr;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -18,12 +21,16 @@ import java.util.UUID;
 public interface PersistentStore {
 
     /**
-     * Finds projects matching the given name.
+     * Finds projects matching the given name, most recently updated first.
      *
-     * @param fragment (case-insensitive) fragment of the name
-     * @return any matching projects
+     * @param fragment   (case-insensitive) fragment of the name
+     * @param lastUpdate last update of the last project of the previous page, or <code>null</code> if it was
+     *                   never updated
+     * @param after      id of the last project of the previous page, or <code>null</code> for the first page
+     * @param limit      maximum number of projects
+     * @return the next page of matching projects
      */
-    List<Project> findProjects(String fragment);
+    List<Project> findProjects(String fragment, @NullOr Instant lastUpdate, @NullOr UUID after, int limit);
 
     /**
      * @return new project
@@ -35,6 +42,27 @@ public interface PersistentStore {
      */
     Optional<Project> getProject(UUID projectId);
 
+    /**
+     * Loads a project for processing its complete dependency graph.
+     *
+     * @return the project with the provided id, including all dependencies and their packages
+     */
+    Optional<Project> getProjectGraph(UUID projectId);
+
+    /**
+     * @return the total number of projects
+     */
+    long countProjects();
+
+    /**
+     * Lists project ids in a stable order, for paging through all projects.
+     *
+     * @param after the last id of the previous page, or <code>null</code> for the first page
+     * @param limit maximum number of ids
+     * @return the next page of project ids
+     */
+    List<UUID> findProjectIds(@NullOr UUID after, int limit);
+
     /**
      * Creates a new package definition.
      *
@@ -43,14 +71,30 @@ public interface PersistentStore {
      */
     Package createPackageDefinition(PackageRef reference);
 
+    /**
+     * Creates new package definitions in bulk.
+     *
+     * @param references PURL compatible package references
+     * @return the created package definitions
+     */
+    List<Package> createPackageDefinitions(Collection<PackageRef> references);
+
     /**
      * @return existing package definition
      */
     Optional<Package> getPackageDefinition(PackageRef reference);
 
+    /**
+     * Looks up package definitions in bulk.
+     *
+     * @param references PURL compatible package references
+     * @return the existing package definitions for the references
+     */
+    List<Package> getPackageDefinitions(Collection<PackageRef> references);
+
     /**
      * @param fragment part of a reference
-     * @return all packages with a reference containing the fragment
+     * @return the best matching (limited number of) packages with a reference containing the fragment
      */
     List<Package> findPackageDefinitions(String fragment);
 
@@ -64,6 +108,15 @@ public interface PersistentStore {
      */
     Dependency createDependency(Project project, @NullOr String id, String title);
 
+    /**
+     * Creates new dependencies in bulk, which are persisted when they are added to the project.
+     *
+     * @param project      context for the dependencies
+     * @param dependencies transient dependencies to copy the identification, package and license from
+     * @return the persisted dependencies in the order of the transient dependencies
+     */
+    List<Dependency> createDependencies(Project project, Collection<Dependency> dependencies);
+
     /**
      * @return the project containing the dependency
      */
@@ -78,9 +131,30 @@ public interface PersistentStore {
     List<Dependency> findDependencies(Package pkg);
 
     /**
-     * Delete all dependencies for a project.
+     * Lists the dependencies of a project for display, without loading them as (managed) domain objects.
      *
      * @param project owner of the dependencies
+     * @return summaries of all dependencies of the project, sorted by title
+     */
+    List<DependencySummary> findDependencySummaries(Project project);
+
+    /**
+     * Lists all projects with a dependency that maps to a version of a package.
+     *
+     * @param pkg the package definition
+     * @return all distinct projects using the package
+     */
+    List<Project> findProjectsUsing(Package pkg);
+
+    /**
+     * Deletes dependencies with their relations, usages, and violations in bulk.
+     *
+     * @param dependencies dependencies that are no longer part of their project
+     */
+    void deleteDependencies(Collection<Dependency> dependencies);
+
+    /**
+     * Writes all pending changes to the database, without committing them.
      */
-    void deleteDependencies(Project project);
+    void flush();
 }
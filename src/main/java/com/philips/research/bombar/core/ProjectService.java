@@ -10,6 +10,7 @@ import pl.tlinkowski.annotation.basic.NullOr;
 import java.io.InputStream;
 import java.net.URI;
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -20,10 +21,11 @@ public interface ProjectService {
      * Searches for projects by name. (Use "" to list the most recent projects.)
      *
      * @param fragment case-insensitive part of the project name
-     * @param limit    maximum number of results
+     * @param after    position of the last project of the previous page, or <code>null</code> for the first page
+     * @param limit    maximum number of results (capped to a maximum page size)
      * @return list of matching projects, sorted by SBOM upload date
      */
-    List<ProjectDto> findProjects(String fragment, int limit);
+    List<ProjectDto> findProjects(String fragment, @NullOr ProjectCursor after, int limit);
 
     /**
      * Creates a new project.
@@ -47,11 +49,15 @@ public interface ProjectService {
     ProjectDto updateProject(ProjectDto dto);
 
     /**
-     * Updates a project from an SPDX tag-value file.
+     * Updates a project from an SPDX (tag-value or JSON) or CycloneDX (JSON or XML) file, reporting progress to
+     * the listener. The import is skipped if the file is identical to the previous import and the license
+     * definitions did not change since.
      *
-     * @param stream file content
+     * @param stream   file content
+     * @param hash     hex encoded SHA-256 hash of the file content
+     * @param listener receives progress notifications
      */
-    void importSpdx(UUID projectId, InputStream stream);
+    void importSpdx(UUID projectId, InputStream stream, String hash, ImportListener listener);
 
     /**
      * @return all package of the indicated project
@@ -63,6 +69,16 @@ public interface ProjectService {
      */
     DependencyDto findDependency(UUID projectId, String dependencyId);
 
+    /**
+     * Re-checks the licenses of projects that were not checked using the current license definitions,
+     * updating their stored violations. The projects are checked on the calling thread, so (background)
+     * callers bound the used threads by their own pool.
+     *
+     * @param projectIds projects to check; unknown projects are ignored
+     * @return number of re-checked projects
+     */
+    int checkLicenses(Collection<UUID> projectIds);
+
     /**
      * Suppress violations for dependency.
      *
@@ -95,6 +111,52 @@ public interface ProjectService {
      */
     Map<String, Set<DependencyDto>> findObligations(UUID projectId);
 
+    /**
+     * Progress notifications for the import of a bill-of-materials.
+     */
+    interface ImportListener {
+        /**
+         * Notifies the bill-of-materials was parsed into the project.
+         *
+         * @param dependencies number of imported dependencies
+         */
+        default void parsed(int dependencies) {
+        }
+
+        /**
+         * Notifies the imported dependencies were written to the database.
+         */
+        default void persisted() {
+        }
+
+        /**
+         * Notifies the licenses of the project were checked.
+         *
+         * @param violations number of detected license violations
+         */
+        default void checked(int violations) {
+        }
+
+        /**
+         * Notifies the import was skipped, because the project was already imported from the same file.
+         */
+        default void unchanged() {
+        }
+    }
+
+    /**
+     * Position in the list of projects, given by the last update and id of a listed project.
+     */
+    class ProjectCursor {
+        public final @NullOr Instant updated;
+        public final UUID id;
+
+        public ProjectCursor(@NullOr Instant updated, UUID id) {
+            this.updated = updated;
+            this.id = id;
+        }
+    }
+
     class ProjectDto {
         public final UUID id;
         public @NullOr String title;
@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2020-2021, Koninklijke Philips N.V., https://www.philips.com
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.philips.research.bombar.core.cyclonedx;
+
+import pl.tlinkowski.annotation.basic.NullOr;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Component attributes collected while reading a CycloneDX document.
+ */
+class Component {
+    private final List<String> licenses = new ArrayList<>();
+
+    private @NullOr String bomRef;
+    private String name = "";
+    private @NullOr String version;
+    private @NullOr String purl;
+    private @NullOr String expression;
+    private @NullOr String description;
+    private @NullOr String supplier;
+    private @NullOr String publisher;
+    private @NullOr String homepage;
+    private @NullOr String scope;
+
+    Optional<String> getBomRef() {
+        return Optional.ofNullable(bomRef);
+    }
+
+    Component setBomRef(@NullOr String bomRef) {
+        this.bomRef = bomRef;
+        return this;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    Component setName(String name) {
+        this.name = name;
+        return this;
+    }
+
+    Optional<String> getVersion() {
+        return Optional.ofNullable(version);
+    }
+
+    Component setVersion(String version) {
+        this.version = version;
+        return this;
+    }
+
+    Optional<String> getPurl() {
+        return Optional.ofNullable(purl);
+    }
+
+    Component setPurl(String purl) {
+        this.purl = purl;
+        return this;
+    }
+
+    /**
+     * Adds an SPDX license identifier.
+     */
+    Component addLicenseId(String id) {
+        licenses.add(id);
+        return this;
+    }
+
+    /**
+     * Adds a (non-SPDX) license name.
+     */
+    Component addLicenseName(String name) {
+        licenses.add('"' + name + '"');
+        return this;
+    }
+
+    Component setLicenseExpression(String expression) {
+        this.expression = expression;
+        return this;
+    }
+
+    /**
+     * @return the license expression, or the conjunction of all listed licenses
+     */
+    Optional<String> getLicense() {
+        if (expression != null) {
+            return Optional.of(expression);
+        }
+        return licenses.isEmpty() ? Optional.empty() : Optional.of(String.join(" AND ", licenses));
+    }
+
+    Optional<String> getDescription() {
+        return Optional.ofNullable(description);
+    }
+
+    Component setDescription(String description) {
+        this.description = description;
+        return this;
+    }
+
+    /**
+     * @return the supplier, falling back to the publisher
+     */
+    Optional<String> getSupplier() {
+        return Optional.ofNullable((supplier != null) ? supplier : publisher);
+    }
+
+    Component setSupplier(String supplier) {
+        this.supplier = supplier;
+        return this;
+    }
+
+    Component setPublisher(String publisher) {
+        this.publisher = publisher;
+        return this;
+    }
+
+    Optional<String> getHomepage() {
+        return Optional.ofNullable(homepage);
+    }
+
+    Component setHomepage(String homepage) {
+        this.homepage = homepage;
+        return this;
+    }
+
+    /**
+     * @return true if the component is not part of the delivered product
+     */
+    boolean isExcluded() {
+        return "excluded".equalsIgnoreCase(scope);
+    }
+
+    Component setScope(String scope) {
+        this.scope = scope;
+        return this;
+    }
+}
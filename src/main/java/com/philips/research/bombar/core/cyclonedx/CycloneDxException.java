@@ -0,0 +1,18 @@
+/*
+ * Copyright (c) 2020-2021, Koninklijke Philips N.V., https://www.philips.com
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.philips.research.bombar.core.cyclonedx;
+
+import com.philips.research.bombar.core.BusinessException;
+
+public class CycloneDxException extends BusinessException {
+    public CycloneDxException(String message) {
+        super(message);
+    }
+
+    public CycloneDxException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,269 @@
+/*
+ * Copyright (c) 2020-2021, Koninklijke Philips N.V., https://www.philips.com
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.philips.research.bombar.core.cyclonedx;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.philips.research.bombar.core.BusinessException;
+import pl.tlinkowski.annotation.basic.NullOr;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Set;
+
+/**
+ * Streaming reader for CycloneDX JSON documents.
+ */
+class CycloneDxJsonReader {
+    private static final JsonFactory FACTORY = new JsonFactory();
+    private static final Set<String> BOM_MEMBERS = Set.of("bomFormat", "specVersion", "serialNumber", "version",
+            "metadata", "components", "services", "dependencies", "compositions", "vulnerabilities");
+    private static final Set<String> SPDX_MEMBERS = Set.of("spdxVersion", "SPDXID", "dataLicense", "documentNamespace",
+            "creationInfo", "packages", "files", "relationships", "documentDescribes");
+
+    private final CycloneDxParser importer;
+
+    private @NullOr JsonParser parser;
+
+    CycloneDxJsonReader(CycloneDxParser importer) {
+        this.importer = importer;
+    }
+
+    /**
+     * Identifies a CycloneDX document by its first top-level member that belongs to either CycloneDX or SPDX,
+     * skipping any other members (like "$schema") that precede it. Does not close the stream.
+     *
+     * @return true if the stream holds a CycloneDX JSON object
+     */
+    static boolean isBom(InputStream stream) {
+        try (final var json = FACTORY.createParser(stream)) {
+            json.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+            if (json.nextToken() != JsonToken.START_OBJECT) {
+                return false;
+            }
+            while (json.nextToken() == JsonToken.FIELD_NAME) {
+                final var field = json.getCurrentName();
+                if (BOM_MEMBERS.contains(field)) {
+                    return true;
+                }
+                if (SPDX_MEMBERS.contains(field)) {
+                    return false;
+                }
+                json.nextToken();
+                json.skipChildren();
+            }
+            return false;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    void parse(InputStream stream) {
+        try (final var json = FACTORY.createParser(stream)) {
+            parser = json;
+            if (json.nextToken() != JsonToken.START_OBJECT) {
+                throw new CycloneDxException("Expected a JSON object");
+            }
+            forEachField(this::bomField);
+        } catch (BusinessException e) {
+            throw new CycloneDxException("Line " + lineNr() + ": " + e.getMessage(), e);
+        } catch (Exception e) {
+            throw new CycloneDxException("Error reading data from JSON stream", e);
+        } finally {
+            parser = null;
+        }
+    }
+
+    private void bomField(String field) throws IOException {
+        switch (field) {
+            case "metadata":
+                forEachField(this::metadataField);
+                break;
+            case "components":
+                forEachElement(() -> component(null));
+                break;
+            case "dependencies":
+                forEachElement(this::dependency);
+                break;
+            default:
+                json().skipChildren();
+        }
+    }
+
+    private void metadataField(String field) throws IOException {
+        switch (field) {
+            case "timestamp":
+                importer.timestamp(text());
+                break;
+            case "component":
+                importer.title(component(null).getName());
+                break;
+            default:
+                json().skipChildren();
+        }
+    }
+
+    private Component component(@NullOr Component parent) throws IOException {
+        final var component = new Component();
+        forEachField(field -> {
+            switch (field) {
+                case "bom-ref":
+                    component.setBomRef(text());
+                    break;
+                case "name":
+                    component.setName(text());
+                    break;
+                case "version":
+                    component.setVersion(text());
+                    break;
+                case "purl":
+                    component.setPurl(text());
+                    break;
+                case "description":
+                    component.setDescription(text());
+                    break;
+                case "scope":
+                    component.setScope(text());
+                    break;
+                case "publisher":
+                    component.setPublisher(text());
+                    break;
+                case "supplier":
+                    forEachField(name -> {
+                        if ("name".equals(name)) {
+                            component.setSupplier(text());
+                        } else {
+                            json().skipChildren();
+                        }
+                    });
+                    break;
+                case "licenses":
+                    forEachElement(() -> license(component));
+                    break;
+                case "externalReferences":
+                    forEachElement(() -> externalReference(component));
+                    break;
+                case "components":
+                    forEachElement(() -> component(component));
+                    break;
+                default:
+                    json().skipChildren();
+            }
+        });
+        importer.component(component, parent);
+        return component;
+    }
+
+    private void license(Component component) throws IOException {
+        forEachField(field -> {
+            if ("expression".equals(field)) {
+                component.setLicenseExpression(text());
+            } else if ("license".equals(field)) {
+                forEachField(name -> {
+                    if ("id".equals(name)) {
+                        component.addLicenseId(text());
+                    } else if ("name".equals(name)) {
+                        component.addLicenseName(text());
+                    } else {
+                        json().skipChildren();
+                    }
+                });
+            } else {
+                json().skipChildren();
+            }
+        });
+    }
+
+    private void externalReference(Component component) throws IOException {
+        final var reference = new String[]{"", ""};
+        forEachField(field -> {
+            if ("type".equals(field)) {
+                reference[0] = text();
+            } else if ("url".equals(field)) {
+                reference[1] = text();
+            } else {
+                json().skipChildren();
+            }
+        });
+        if ("website".equals(reference[0]) && !reference[1].isBlank()) {
+            component.setHomepage(reference[1]);
+        }
+    }
+
+    private void dependency() throws IOException {
+        final var ref = new String[]{""};
+        final var targets = new ArrayList<String>();
+        forEachField(field -> {
+            if ("ref".equals(field)) {
+                ref[0] = text();
+            } else if ("dependsOn".equals(field)) {
+                forEachElement(() -> targets.add(text()));
+            } else {
+                json().skipChildren();
+            }
+        });
+        targets.forEach(target -> importer.dependency(ref[0], target));
+    }
+
+    private void forEachField(FieldHandler handler) throws IOException {
+        final var json = json();
+        if (json.currentToken() != JsonToken.START_OBJECT) {
+            json.skipChildren();
+            return;
+        }
+        while (json.nextToken() == JsonToken.FIELD_NAME) {
+            final var field = json.getCurrentName();
+            json.nextToken();
+            handler.accept(field);
+        }
+    }
+
+    private void forEachElement(ElementHandler handler) throws IOException {
+        final var json = json();
+        if (json.currentToken() != JsonToken.START_ARRAY) {
+            json.skipChildren();
+            return;
+        }
+        JsonToken token;
+        while ((token = json.nextToken()) != JsonToken.END_ARRAY) {
+            if (token == null) {
+                throw new CycloneDxException("Unexpected end of JSON document");
+            }
+            handler.run();
+        }
+    }
+
+    private String text() throws IOException {
+        final var json = json();
+        if (json.currentToken().isStructStart()) {
+            json.skipChildren();
+            return "";
+        }
+        final var value = json.getValueAsString();
+        return (value != null) ? value : "";
+    }
+
+    private JsonParser json() {
+        //noinspection ConstantConditions
+        return parser;
+    }
+
+    private int lineNr() {
+        return (parser != null) ? parser.getCurrentLocation().getLineNr() : 0;
+    }
+
+    @FunctionalInterface
+    private interface FieldHandler {
+        void accept(String field) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface ElementHandler {
+        void run() throws IOException;
+    }
+}
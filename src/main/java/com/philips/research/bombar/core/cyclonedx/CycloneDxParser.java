@@ -0,0 +1,278 @@
+/*
+ * Copyright (c) 2020-2021, Koninklijke Philips N.V., https://www.philips.com
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.philips.research.bombar.core.cyclonedx;
+
+import com.github.packageurl.MalformedPackageURLException;
+import com.github.packageurl.PackageURL;
+import com.philips.research.bombar.core.PersistentStore;
+import com.philips.research.bombar.core.domain.Package;
+import com.philips.research.bombar.core.domain.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import pl.tlinkowski.annotation.basic.NullOr;
+
+import java.io.BufferedInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * Imports the components and dependency graph of a CycloneDX (JSON or XML) bill-of-materials into a project.
+ */
+public class CycloneDxParser {
+    private static final Logger LOG = LoggerFactory.getLogger(CycloneDxParser.class);
+    private static final int FORMAT_DETECTION_LIMIT = 4096;
+    private static final int STRUCTURE_DETECTION_LIMIT = 64 * 1024;
+
+    private final Project project;
+    private final Map<String, Dependency> dictionary = new HashMap<>(); // Key is bom-ref
+    private final Map<Component, Dependency> built = new LinkedHashMap<>();
+    private final PackageResolver packages;
+    private final ProjectUpdate update;
+    private final Set<Dependency> excluded = new HashSet<>();
+    private final List<Component[]> containment = new ArrayList<>();
+    private final List<String[]> dependsOn = new ArrayList<>();
+
+    public CycloneDxParser(Project project, PersistentStore store) {
+        this.project = project;
+        this.packages = new PackageResolver(store);
+        this.update = new ProjectUpdate(project, store);
+    }
+
+    /**
+     * Detects a CycloneDX document from the structure of the content, leaving the stream at its original position.
+     * Only the start of the document is read: for XML up to the root element, and for JSON up to the first
+     * top-level member that is specific to either CycloneDX or SPDX. Because the stream buffers everything that is
+     * read for detection, a document that is not identified within the first 64KB is not detected as CycloneDX.
+     *
+     * @return true if the stream holds a CycloneDX JSON or XML document
+     */
+    public static boolean isCycloneDx(BufferedInputStream stream) {
+        final var xml = isXml(stream);
+        try {
+            stream.mark(STRUCTURE_DETECTION_LIMIT);
+            try {
+                final var start = new LimitedInputStream(stream, STRUCTURE_DETECTION_LIMIT);
+                return xml ? CycloneDxXmlReader.isBom(start) : CycloneDxJsonReader.isBom(start);
+            } finally {
+                stream.reset();
+            }
+        } catch (IOException e) {
+            throw new CycloneDxException("Error reading data from bill-of-materials stream", e);
+        }
+    }
+
+    /**
+     * Parses a CycloneDX document in either JSON or XML format, as detected from the content.
+     */
+    public void parse(InputStream stream) {
+        project.setLastUpdate(Instant.now());
+        final var buffered = new BufferedInputStream(stream);
+        if (isXml(buffered)) {
+            new CycloneDxXmlReader(this).parse(buffered);
+        } else {
+            new CycloneDxJsonReader(this).parse(buffered);
+        }
+        finish();
+    }
+
+    private static boolean isXml(BufferedInputStream stream) {
+        try {
+            stream.mark(FORMAT_DETECTION_LIMIT);
+            try {
+                int ch;
+                //noinspection StatementWithEmptyBody
+                while ((ch = stream.read()) >= 0 && (Character.isWhitespace(ch) || ch == 0xEF || ch == 0xBB || ch == 0xBF)) {
+                }
+                return ch == '<';
+            } finally {
+                stream.reset();
+            }
+        } catch (IOException e) {
+            throw new CycloneDxException("Error reading data from bill-of-materials stream", e);
+        }
+    }
+
+    void timestamp(String iso) {
+        try {
+            project.setLastUpdate(Instant.parse(iso));
+        } catch (Exception e) {
+            LOG.warn("Encountered malformed timestamp '{}'; using current time instead", iso);
+        }
+    }
+
+    void title(String title) {
+        if (project.getTitle().isBlank() && !title.isBlank()) {
+            project.setTitle(title);
+        }
+    }
+
+    /**
+     * Adds a completely read component.
+     *
+     * @param parent the enclosing component, if nested
+     */
+    void component(Component component, @NullOr Component parent) {
+        component.getBomRef().filter(dictionary::containsKey).ifPresent(ref -> {
+            throw new CycloneDxException("Duplicate bom-ref " + ref);
+        });
+        final var dependency = build(component);
+        built.put(component, dependency);
+        component.getBomRef().ifPresent(ref -> dictionary.put(ref, dependency));
+        if (component.isExcluded()) {
+            excluded.add(dependency);
+        }
+        if (parent != null) {
+            containment.add(new Component[]{parent, component});
+        }
+    }
+
+    /**
+     * Registers a dependency between two components by their bom-ref.
+     */
+    void dependency(String ref, String dependency) {
+        dependsOn.add(new String[]{ref, dependency});
+    }
+
+    private void finish() {
+        packages.resolve();
+        update.merge();
+        built.replaceAll((component, dependency) -> update.merged(dependency));
+        dictionary.replaceAll((ref, dependency) -> update.merged(dependency));
+        final var staged = new ArrayList<>(excluded);
+        excluded.clear();
+        staged.forEach(dependency -> excluded.add(update.merged(dependency)));
+        containment.forEach(pair -> {
+            final @NullOr Dependency parent = built.get(pair[0]);
+            final @NullOr Dependency child = built.get(pair[1]);
+            if (parent != null && child != null) {
+                project.addRelationship(parent, child, relationshipTo(child, Relation.Relationship.INDEPENDENT));
+            }
+        });
+        dependsOn.forEach(pair -> {
+            final @NullOr Dependency from = dictionary.get(pair[0]);
+            final @NullOr Dependency to = dictionary.get(pair[1]);
+            if (from != null && to != null) {
+                project.addRelationship(from, to, relationshipTo(to, Relation.Relationship.DYNAMIC_LINK));
+            }
+        });
+        project.postProcess();
+    }
+
+    private Relation.Relationship relationshipTo(Dependency target, Relation.Relationship relationship) {
+        return excluded.contains(target) ? Relation.Relationship.IRRELEVANT : relationship;
+    }
+
+    private Dependency build(Component component) {
+        final var dependency = update.stage(component.getBomRef().orElse(null), component.getName());
+        component.getPurl().flatMap(this::toPurl).ifPresent(purl -> {
+            dependency.setPurl(purl);
+            packages.add(new PackageRef(purl), pkg -> update(dependency, component, pkg));
+        });
+        final var version = component.getVersion()
+                .or(() -> dependency.getPurl().map(PackageURL::getVersion));
+        version.ifPresent(dependency::setVersion);
+        component.getLicense().ifPresent(dependency::setLicense);
+        return dependency;
+    }
+
+    /**
+     * Links the dependency to its (resolved) package, and copies missing package information.
+     */
+    private void update(Dependency dependency, Component component, Package pkg) {
+        dependency.setPackage(pkg);
+        if (pkg.getReference().toString().equals(pkg.getName())) {
+            pkg.setName(component.getName());
+        }
+        if (pkg.getHomepage().isEmpty()) {
+            component.getHomepage().flatMap(this::toUri).ifPresent(pkg::setHomepage);
+        }
+        if (pkg.getVendor().isEmpty()) {
+            component.getSupplier().ifPresent(pkg::setVendor);
+        }
+        if (pkg.getDescription().isEmpty()) {
+            component.getDescription().ifPresent(pkg::setDescription);
+        }
+    }
+
+    private Optional<PackageURL> toPurl(String purl) {
+        try {
+            return Optional.of(new PackageURL(purl));
+        } catch (MalformedPackageURLException e) {
+            throw new CycloneDxException("Malformed package URL: " + purl);
+        }
+    }
+
+    private Optional<URI> toUri(String url) {
+        try {
+            return Optional.of(URI.create(url));
+        } catch (Exception e) {
+            LOG.warn("Malformed homepage URL: {}", url);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Ends the stream after a maximum number of bytes, without closing the underlying stream.
+     */
+    private static class LimitedInputStream extends FilterInputStream {
+        private int remaining;
+
+        LimitedInputStream(InputStream stream, int limit) {
+            super(stream);
+            this.remaining = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            final var ch = super.read();
+            if (ch >= 0) {
+                remaining--;
+            }
+            return ch;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            final var count = super.read(buffer, offset, Math.min(length, remaining));
+            if (count > 0) {
+                remaining -= count;
+            }
+            return count;
+        }
+
+        @Override
+        public long skip(long count) throws IOException {
+            final var skipped = super.skip(Math.min(count, remaining));
+            remaining -= (int) skipped;
+            return skipped;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return Math.min(super.available(), remaining);
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        @Override
+        public void close() {
+            // Leaves the underlying stream open
+        }
+    }
+}
@@ -0,0 +1,261 @@
+/*
+ * Copyright (c) 2020-2021, Koninklijke Philips N.V., https://www.philips.com
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.philips.research.bombar.core.cyclonedx;
+
+import com.philips.research.bombar.core.BusinessException;
+import pl.tlinkowski.annotation.basic.NullOr;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.InputStream;
+
+/**
+ * Streaming (StAX) reader for CycloneDX XML documents.
+ */
+class CycloneDxXmlReader {
+    private static final XMLInputFactory FACTORY = XMLInputFactory.newFactory();
+
+    static {
+        // Prevent XML external entity attacks
+        FACTORY.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        FACTORY.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    }
+
+    private final CycloneDxParser importer;
+
+    private @NullOr XMLStreamReader reader;
+
+    CycloneDxXmlReader(CycloneDxParser importer) {
+        this.importer = importer;
+    }
+
+    /**
+     * Identifies a CycloneDX document by its "bom" root element. Does not close the stream.
+     *
+     * @return true if the stream holds a CycloneDX XML document
+     */
+    static boolean isBom(InputStream stream) {
+        try {
+            final var xml = FACTORY.createXMLStreamReader(stream);
+            try {
+                while (xml.hasNext()) {
+                    if (xml.next() == XMLStreamConstants.START_ELEMENT) {
+                        return "bom".equals(xml.getLocalName());
+                    }
+                }
+                return false;
+            } finally {
+                xml.close();
+            }
+        } catch (XMLStreamException e) {
+            return false;
+        }
+    }
+
+    void parse(InputStream stream) {
+        try {
+            reader = FACTORY.createXMLStreamReader(stream);
+            if (xml().nextTag() != XMLStreamConstants.START_ELEMENT || !"bom".equals(xml().getLocalName())) {
+                throw new CycloneDxException("Expected a CycloneDX 'bom' element");
+            }
+            forEachChild(this::bomElement);
+            xml().close();
+        } catch (BusinessException e) {
+            throw new CycloneDxException("Line " + lineNr() + ": " + e.getMessage(), e);
+        } catch (Exception e) {
+            throw new CycloneDxException("Error reading data from XML stream", e);
+        } finally {
+            reader = null;
+        }
+    }
+
+    private void bomElement(String element) throws XMLStreamException {
+        switch (element) {
+            case "metadata":
+                forEachChild(this::metadataElement);
+                break;
+            case "components":
+                components(null);
+                break;
+            case "dependencies":
+                forEachChild(name -> {
+                    if ("dependency".equals(name)) {
+                        dependency();
+                    } else {
+                        skip();
+                    }
+                });
+                break;
+            default:
+                skip();
+        }
+    }
+
+    private void metadataElement(String element) throws XMLStreamException {
+        switch (element) {
+            case "timestamp":
+                importer.timestamp(text());
+                break;
+            case "component":
+                importer.title(component(null).getName());
+                break;
+            default:
+                skip();
+        }
+    }
+
+    private void components(@NullOr Component parent) throws XMLStreamException {
+        forEachChild(name -> {
+            if ("component".equals(name)) {
+                component(parent);
+            } else {
+                skip();
+            }
+        });
+    }
+
+    private Component component(@NullOr Component parent) throws XMLStreamException {
+        final var component = new Component()
+                .setBomRef(xml().getAttributeValue(null, "bom-ref"));
+        forEachChild(element -> {
+            switch (element) {
+                case "name":
+                    component.setName(text());
+                    break;
+                case "version":
+                    component.setVersion(text());
+                    break;
+                case "purl":
+                    component.setPurl(text());
+                    break;
+                case "description":
+                    component.setDescription(text());
+                    break;
+                case "scope":
+                    component.setScope(text());
+                    break;
+                case "publisher":
+                    component.setPublisher(text());
+                    break;
+                case "supplier":
+                    forEachChild(name -> {
+                        if ("name".equals(name)) {
+                            component.setSupplier(text());
+                        } else {
+                            skip();
+                        }
+                    });
+                    break;
+                case "licenses":
+                    licenses(component);
+                    break;
+                case "externalReferences":
+                    forEachChild(name -> {
+                        if ("reference".equals(name)) {
+                            externalReference(component);
+                        } else {
+                            skip();
+                        }
+                    });
+                    break;
+                case "components":
+                    components(component);
+                    break;
+                default:
+                    skip();
+            }
+        });
+        importer.component(component, parent);
+        return component;
+    }
+
+    private void licenses(Component component) throws XMLStreamException {
+        forEachChild(element -> {
+            if ("expression".equals(element)) {
+                component.setLicenseExpression(text());
+            } else if ("license".equals(element)) {
+                forEachChild(name -> {
+                    if ("id".equals(name)) {
+                        component.addLicenseId(text());
+                    } else if ("name".equals(name)) {
+                        component.addLicenseName(text());
+                    } else {
+                        skip();
+                    }
+                });
+            } else {
+                skip();
+            }
+        });
+    }
+
+    private void externalReference(Component component) throws XMLStreamException {
+        final var isWebsite = "website".equals(xml().getAttributeValue(null, "type"));
+        forEachChild(element -> {
+            if (isWebsite && "url".equals(element)) {
+                component.setHomepage(text());
+            } else {
+                skip();
+            }
+        });
+    }
+
+    private void dependency() throws XMLStreamException {
+        final var ref = xml().getAttributeValue(null, "ref");
+        forEachChild(element -> {
+            final var target = xml().getAttributeValue(null, "ref");
+            if ("dependency".equals(element) && ref != null && target != null) {
+                importer.dependency(ref, target);
+            }
+            skip();
+        });
+    }
+
+    /**
+     * Invokes the handler for every child element of the current element.
+     * The handler must consume the child element up to its end tag.
+     */
+    private void forEachChild(ElementHandler handler) throws XMLStreamException {
+        while (xml().nextTag() == XMLStreamConstants.START_ELEMENT) {
+            handler.accept(xml().getLocalName());
+        }
+    }
+
+    private String text() throws XMLStreamException {
+        return xml().getElementText().strip();
+    }
+
+    /**
+     * Skips the remainder of the current element, including all of its children.
+     */
+    private void skip() throws XMLStreamException {
+        var depth = 1;
+        while (depth > 0) {
+            final var event = xml().next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
+    private XMLStreamReader xml() {
+        //noinspection ConstantConditions
+        return reader;
+    }
+
+    private int lineNr() {
+        return (reader != null) ? reader.getLocation().getLineNumber() : 0;
+    }
+
+    @FunctionalInterface
+    private interface ElementHandler {
+        void accept(String element) throws XMLStreamException;
+    }
+}
@@ -9,13 +9,13 @@ import com.github.packageurl.PackageURL;
 import pl.tlinkowski.annotation.basic.NullOr;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 public class Dependency {
-    private final String key;
-    private final String title;
+    private String key;
+    private String title;
     private final Set<Relation> relations = new HashSet<>();
     private final Set<Dependency> usages = new HashSet<>();
+    private final List<String> violations = new ArrayList<>();
 
     private @NullOr Package pkg;
     private @NullOr PackageURL purl;
@@ -26,6 +26,7 @@ public class Dependency {
     private boolean isDelivered;
     private int issueCount;
     private @NullOr String exemption;
+    private Relation.@NullOr Relationship strongestUsage;
 
     public Dependency(@NullOr String key, String title) {
         this.key = (key != null) ? key : UUID.randomUUID().toString();
@@ -36,10 +37,24 @@ public class Dependency {
         return key;
     }
 
+    /**
+     * Changes the identifier of the dependency.
+     * (As the identifier determines equality, the dependency should not be part of any hashed collection.)
+     */
+    Dependency setKey(String key) {
+        this.key = key;
+        return this;
+    }
+
     public String getTitle() {
         return title;
     }
 
+    Dependency setTitle(String title) {
+        this.title = title;
+        return this;
+    }
+
     public Optional<PackageURL> getPurl() {
         return Optional.ofNullable(purl);
     }
@@ -80,13 +95,18 @@ public class Dependency {
         return this;
     }
 
+    /**
+     * @return the (shared) syntax tree of the license expression
+     */
+    public LicenseExpression getLicenseExpression() {
+        return LicenseExpression.parse(license);
+    }
+
+    /**
+     * @return the distinct licenses of the license expression
+     */
     public List<String> getLicenses() {
-        final var licenses = license
-                .split("\\s*(AND|OR|\\)|\\()\\s*");
-        return Arrays.stream(licenses)
-                .filter(l -> !l.isBlank())
-                .distinct()
-                .collect(Collectors.toList());
+        return getLicenseExpression().getLicenses();
     }
 
     public boolean isRoot() {
@@ -117,6 +137,16 @@ public class Dependency {
         return this;
     }
 
+    /**
+     * Clears the root, development and delivery status before they are determined by post-processing the project.
+     */
+    Dependency clearStatus() {
+        isRoot = false;
+        isDevelopment = false;
+        isDelivered = false;
+        return this;
+    }
+
     public int getIssueCount() {
         return issueCount;
     }
@@ -126,6 +156,23 @@ public class Dependency {
         return this;
     }
 
+    /**
+     * @return the license violations found by the latest license check
+     */
+    public List<String> getViolations() {
+        return violations;
+    }
+
+    /**
+     * Replaces the license violations, and updates the number of issues accordingly.
+     */
+    public Dependency setViolations(List<String> messages) {
+        violations.clear();
+        violations.addAll(messages);
+        issueCount = messages.size();
+        return this;
+    }
+
     public Collection<Relation> getRelations() {
         return relations;
     }
@@ -144,6 +191,44 @@ public class Dependency {
         return this;
     }
 
+    Dependency removeRelationsTo(Dependency dependency) {
+        relations.removeIf(relation -> relation.getTarget().equals(dependency));
+        return this;
+    }
+
+    Dependency removeUsage(Dependency dependency) {
+        usages.remove(dependency);
+        return this;
+    }
+
+    /**
+     * Clears all information that is derived from the project structure.
+     */
+    Dependency reset() {
+        relations.clear();
+        usages.clear();
+        isRoot = false;
+        isDevelopment = false;
+        isDelivered = false;
+        issueCount = 0;
+        violations.clear();
+        strongestUsage = null;
+        exemption = null;
+        return this;
+    }
+
+    /**
+     * Copies the imported information from another dependency.
+     */
+    Dependency copy(Dependency other) {
+        title = other.title;
+        purl = other.purl;
+        pkg = other.pkg;
+        version = other.version;
+        license = other.license;
+        return this;
+    }
+
     public Optional<String> getExemption() {
         return Optional.ofNullable(exemption);
     }
@@ -153,12 +238,26 @@ public class Dependency {
         return this;
     }
 
+    /**
+     * @return the strongest relationship of any usage, as determined by post-processing the project
+     */
     public Optional<Relation.Relationship> getStrongestUsage() {
-        return Optional.ofNullable(getUsages().stream()
-                .flatMap(parent -> parent.getRelations().stream())
-                .filter(relation -> relation.getTarget() == this)
-                .map(Relation::getType)
-                .reduce(null, (previous, next) -> (previous == null || next.compareTo(previous) > 0) ? next : previous));
+        return Optional.ofNullable(strongestUsage);
+    }
+
+    /**
+     * Registers an incoming relationship, keeping the strongest relationship.
+     */
+    Dependency updateStrongestUsage(Relation.Relationship relationship) {
+        if (strongestUsage == null || relationship.compareTo(strongestUsage) > 0) {
+            strongestUsage = relationship;
+        }
+        return this;
+    }
+
+    Dependency clearStrongestUsage() {
+        strongestUsage = null;
+        return this;
     }
 
     @Override
@@ -0,0 +1,36 @@
+/*
+ * Copyright (c) 2020-2021, Koninklijke Philips N.V., https://www.philips.com
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.philips.research.bombar.core.domain;
+
+import pl.tlinkowski.annotation.basic.NullOr;
+
+/**
+ * Read-only summary of the properties that are needed to list the dependencies of a project.
+ */
+public interface DependencySummary {
+    String getKey();
+
+    String getTitle();
+
+    /**
+     * @return canonical package URL
+     */
+    @NullOr String getPurl();
+
+    String getVersion();
+
+    String getLicense();
+
+    int getIssueCount();
+
+    boolean getIsRoot();
+
+    boolean getIsDevelopment();
+
+    boolean getIsDelivered();
+
+    @NullOr String getExemption();
+}
@@ -5,18 +5,23 @@
 
 package com.philips.research.bombar.core.domain;
 
+import com.philips.research.bombar.core.EvaluationService.EvaluationDto;
+import com.philips.research.bombar.core.ImportService.ImportDto;
 import com.philips.research.bombar.core.PackageService;
 import com.philips.research.bombar.core.PackageService.PackageDto;
 import com.philips.research.bombar.core.ProjectService.DependencyDto;
 import com.philips.research.bombar.core.ProjectService.ProjectDto;
-import com.philips.research.bombar.core.domain.licenses.LicenseViolation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.net.URI;
+import java.util.ArrayList;
 import java.util.Collections;
-import java.util.List;
 import java.util.stream.Collectors;
 
 abstract class DtoConverter {
+    private static final Logger LOG = LoggerFactory.getLogger(DtoConverter.class);
+
     static ProjectDto toDto(Project project) {
         final var dto = toBaseDto(project);
         dto.packages = project.getDependencies().stream()
@@ -36,10 +41,36 @@ abstract class DtoConverter {
         return dto;
     }
 
-    static DependencyDto toDto(Dependency dependency, List<LicenseViolation> violations) {
+    static ImportDto toDto(ImportJob job) {
+        final var dto = new ImportDto(job.getId(), job.getProjectId());
+        dto.phase = job.getPhase().name().toLowerCase();
+        dto.dependencies = job.getDependencyCount();
+        dto.violations = job.getViolationCount();
+        dto.unchanged = job.isUnchanged();
+        dto.error = job.getError().orElse(null);
+        dto.created = job.getCreated();
+        dto.finished = job.getFinished().orElse(null);
+        return dto;
+    }
+
+    static EvaluationDto toDto(Evaluation evaluation) {
+        final var dto = new EvaluationDto(evaluation.getId());
+        dto.phase = evaluation.getPhase().name().toLowerCase();
+        dto.projects = evaluation.getProjectCount();
+        dto.processed = evaluation.getProcessedCount();
+        dto.checked = evaluation.getCheckedCount();
+        dto.failed = evaluation.getFailedCount();
+        dto.throughput = evaluation.getThroughput();
+        dto.error = evaluation.getError().orElse(null);
+        dto.created = evaluation.getCreated();
+        dto.finished = evaluation.getFinished().orElse(null);
+        return dto;
+    }
+
+    static DependencyDto toDto(Dependency dependency) {
         final var dto = toBaseDto(dependency);
         dependency.getPackage().ifPresent(pkg -> dto.pkg = toDto(pkg));
-        dto.violations = violations.stream().map(LicenseViolation::getMessage).collect(Collectors.toList());
+        dto.violations = new ArrayList<>(dependency.getViolations());
         dto.dependencies = dependency.getRelations().stream()
                 .map(DtoConverter::toDto)
                 .sorted(DtoConverter::alphabetic)
@@ -72,6 +103,28 @@ abstract class DtoConverter {
         return dto;
     }
 
+    static DependencyDto toBaseDto(DependencySummary summary) {
+        final var dto = new DependencyDto(summary.getKey());
+        final var purl = summary.getPurl();
+        if (purl != null) {
+            // Purls stored by older versions were concatenated without validation
+            try {
+                dto.purl = URI.create(purl);
+            } catch (IllegalArgumentException e) {
+                LOG.warn("Ignored stored purl '{}' of dependency {}", purl, summary.getKey());
+            }
+        }
+        dto.title = summary.getTitle();
+        dto.version = summary.getVersion();
+        dto.license = summary.getLicense();
+        dto.issues = summary.getIssueCount();
+        dto.isRoot = summary.getIsRoot();
+        dto.isDevelopment = summary.getIsDevelopment();
+        dto.isDelivered = summary.getIsDelivered();
+        dto.exemption = summary.getExemption();
+        return dto;
+    }
+
     private static int alphabetic(DependencyDto l, DependencyDto r) {
         return l.title.compareToIgnoreCase(r.title);
     }
@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2020-2021, Koninklijke Philips N.V., https://www.philips.com
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.philips.research.bombar.core.domain;
+
+import pl.tlinkowski.annotation.basic.NullOr;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Progress of the background license re-evaluation of all projects.
+ * Updated by the evaluating threads while being read by others.
+ */
+public class Evaluation {
+    private final UUID id;
+    private final Instant created;
+    private final AtomicInteger processedCount = new AtomicInteger();
+    private final AtomicInteger checkedCount = new AtomicInteger();
+    private final AtomicInteger failedCount = new AtomicInteger();
+
+    private volatile Phase phase = Phase.QUEUED;
+    private volatile int projectCount;
+    private volatile @NullOr Instant started;
+    private volatile @NullOr String error;
+    private volatile @NullOr Instant finished;
+
+    public Evaluation(UUID id) {
+        this.id = id;
+        this.created = Instant.now();
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public Instant getCreated() {
+        return created;
+    }
+
+    public Phase getPhase() {
+        return phase;
+    }
+
+    /**
+     * @return (estimated) total number of projects
+     */
+    public int getProjectCount() {
+        return projectCount;
+    }
+
+    /**
+     * @return number of projects that were handled, including up-to-date and failed projects
+     */
+    public int getProcessedCount() {
+        return processedCount.get();
+    }
+
+    /**
+     * @return number of projects that were actually re-checked
+     */
+    public int getCheckedCount() {
+        return checkedCount.get();
+    }
+
+    public int getFailedCount() {
+        return failedCount.get();
+    }
+
+    public Optional<String> getError() {
+        return Optional.ofNullable(error);
+    }
+
+    public Optional<Instant> getFinished() {
+        return Optional.ofNullable(finished);
+    }
+
+    public boolean isFinished() {
+        return phase == Phase.COMPLETED || phase == Phase.FAILED;
+    }
+
+    /**
+     * @return processed projects per second since the start of the evaluation
+     */
+    public double getThroughput() {
+        final var start = started;
+        if (start == null) {
+            return 0.0;
+        }
+        final var end = (finished != null) ? finished : Instant.now();
+        final var millis = Math.max(1, Duration.between(start, end).toMillis());
+        return 1000.0 * processedCount.get() / millis;
+    }
+
+    public Evaluation start(int projects) {
+        projectCount = projects;
+        started = Instant.now();
+        phase = Phase.RUNNING;
+        return this;
+    }
+
+    /**
+     * Registers progress for a batch of projects.
+     *
+     * @param projects number of handled projects
+     * @param checked  number of projects that required a re-check
+     */
+    public Evaluation processed(int projects, int checked) {
+        processedCount.addAndGet(projects);
+        checkedCount.addAndGet(checked);
+        return this;
+    }
+
+    /**
+     * Registers a batch of projects that failed to evaluate.
+     */
+    public Evaluation failed(int projects) {
+        processedCount.addAndGet(projects);
+        failedCount.addAndGet(projects);
+        return this;
+    }
+
+    public Evaluation complete() {
+        finished = Instant.now();
+        phase = Phase.COMPLETED;
+        return this;
+    }
+
+    public Evaluation fail(String message) {
+        error = message;
+        finished = Instant.now();
+        phase = Phase.FAILED;
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s (%s)", id, phase.name().toLowerCase());
+    }
+
+    public enum Phase {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2020-2021, Koninklijke Philips N.V., https://www.philips.com
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.philips.research.bombar.core.domain;
+
+import com.philips.research.bombar.core.EvaluationService;
+import com.philips.research.bombar.core.NotFoundException;
+import com.philips.research.bombar.core.PersistentStore;
+import com.philips.research.bombar.core.ProjectService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import pl.tlinkowski.annotation.basic.NullOr;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Re-evaluates the licenses of all projects in the background.
+ * Project ids are read in pages, and every page is checked in batches (of one transaction each) by a dedicated
+ * pool of worker threads. Every project is checked on the worker thread itself, so the evaluation never uses
+ * more than the configured number of threads and database connections, leaving the rest to interactive requests.
+ */
+@Service
+public class EvaluationInteractor implements EvaluationService {
+    private static final Logger LOG = LoggerFactory.getLogger(EvaluationInteractor.class);
+    private static final int PAGE_SIZE = 500;
+
+    private final ProjectService projectService;
+    private final PersistentStore store;
+    private final ExecutorService coordinator;
+    private final ExecutorService workers;
+    private final int pageSize;
+    private final int batchSize;
+    private volatile @NullOr Evaluation current;
+
+    @Autowired
+    public EvaluationInteractor(ProjectService projectService, PersistentStore store,
+                                @Value("${bombar.evaluation.threads:2}") int threads,
+                                @Value("${bombar.evaluation.batch:10}") int batchSize) {
+        this(projectService, store, Executors.newSingleThreadExecutor(EvaluationInteractor::newThread),
+                Executors.newFixedThreadPool(threads, EvaluationInteractor::newThread), PAGE_SIZE, batchSize);
+    }
+
+    EvaluationInteractor(ProjectService projectService, PersistentStore store,
+                         ExecutorService coordinator, ExecutorService workers, int pageSize, int batchSize) {
+        this.projectService = projectService;
+        this.store = store;
+        this.coordinator = coordinator;
+        this.workers = workers;
+        this.pageSize = pageSize;
+        this.batchSize = batchSize;
+    }
+
+    private static Thread newThread(Runnable runnable) {
+        final var thread = new Thread(runnable, "evaluation");
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    @Override
+    public synchronized EvaluationDto startEvaluation() {
+        final var running = current;
+        if (running != null && !running.isFinished()) {
+            return DtoConverter.toDto(running);
+        }
+        final var evaluation = new Evaluation(UUID.randomUUID());
+        current = evaluation;
+        coordinator.execute(() -> evaluate(evaluation));
+        LOG.info("Scheduled license evaluation {} of all projects", evaluation);
+        return DtoConverter.toDto(evaluation);
+    }
+
+    @Scheduled(cron = "${bombar.evaluation.cron:-}")
+    void scheduledEvaluation() {
+        startEvaluation();
+    }
+
+    @Override
+    public EvaluationDto findEvaluation(UUID evaluationId) {
+        final var evaluation = current;
+        if (evaluation == null || !evaluation.getId().equals(evaluationId)) {
+            throw new NotFoundException("evaluation", evaluationId);
+        }
+        return DtoConverter.toDto(evaluation);
+    }
+
+    private void evaluate(Evaluation evaluation) {
+        try {
+            evaluation.start((int) store.countProjects());
+            @NullOr UUID last = null;
+            List<UUID> page;
+            do {
+                page = store.findProjectIds(last, pageSize);
+                evaluate(evaluation, page);
+                if (!page.isEmpty()) {
+                    last = page.get(page.size() - 1);
+                }
+                LOG.info("Evaluated {} of {} projects ({} projects/s)", evaluation.getProcessedCount(),
+                        evaluation.getProjectCount(), String.format("%.1f", evaluation.getThroughput()));
+            } while (page.size() == pageSize);
+            evaluation.complete();
+            LOG.info("Completed license evaluation {}: re-checked {} of {} projects, {} failed",
+                    evaluation, evaluation.getCheckedCount(), evaluation.getProcessedCount(), evaluation.getFailedCount());
+        } catch (Exception e) {
+            evaluation.fail(e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+            LOG.warn("License evaluation {} failed", evaluation.getId(), e);
+        }
+    }
+
+    /**
+     * Checks a page of projects in parallel batches, and waits for all batches to complete.
+     */
+    private void evaluate(Evaluation evaluation, List<UUID> projectIds) {
+        final var batches = new ArrayList<CompletableFuture<Void>>();
+        for (var i = 0; i < projectIds.size(); i += batchSize) {
+            final var batch = List.copyOf(projectIds.subList(i, Math.min(i + batchSize, projectIds.size())));
+            batches.add(CompletableFuture.runAsync(() -> check(evaluation, batch), workers));
+        }
+        CompletableFuture.allOf(batches.toArray(new CompletableFuture<?>[0])).join();
+    }
+
+    private void check(Evaluation evaluation, List<UUID> batch) {
+        try {
+            final var checked = projectService.checkLicenses(batch);
+            evaluation.processed(batch.size(), checked);
+        } catch (Exception e) {
+            evaluation.failed(batch.size());
+            LOG.warn("License evaluation of projects {} failed", batch, e);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        coordinator.shutdownNow();
+        workers.shutdownNow();
+    }
+}
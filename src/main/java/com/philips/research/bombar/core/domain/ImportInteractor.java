@@ -0,0 +1,215 @@
+/*
+ * Copyright (c) 2020-2021, Koninklijke Philips N.V., https://www.philips.com
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.philips.research.bombar.core.domain;
+
+import com.philips.research.bombar.core.BusyException;
+import com.philips.research.bombar.core.ImportService;
+import com.philips.research.bombar.core.NotFoundException;
+import com.philips.research.bombar.core.PersistentStore;
+import com.philips.research.bombar.core.ProjectService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import pl.tlinkowski.annotation.basic.NullOr;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Imports bill-of-materials files in the background, using a bounded pool of worker threads.
+ * Uploaded content is spooled to a temporary file, so the request does not wait for the import.
+ * The hash of the content is calculated while spooling, so an unchanged upload is skipped without parsing it.
+ * Imports into the same project are processed one at a time in order of upload, because every import merges
+ * into the stored dependencies of the project. Only the latest upload waits for a running import of the same
+ * project, because it replaces the result of any earlier upload anyway.
+ */
+@Service
+public class ImportInteractor implements ImportService {
+    private static final Logger LOG = LoggerFactory.getLogger(ImportInteractor.class);
+    private static final Duration RETENTION = Duration.ofHours(1);
+
+    private final ProjectService projectService;
+    private final PersistentStore store;
+    private final ExecutorService executor;
+    private final Map<UUID, ImportJob> jobs = new ConcurrentHashMap<>();
+    // Project ids of running imports; guarded by itself, and also guards waiting
+    private final Set<UUID> running = new HashSet<>();
+    // Key is project id, value is the latest task waiting for the running import of the project
+    private final Map<UUID, ImportTask> waiting = new HashMap<>();
+
+    @Autowired
+    public ImportInteractor(ProjectService projectService, PersistentStore store,
+                            @Value("${bombar.import.threads:2}") int threads,
+                            @Value("${bombar.import.queue:20}") int queueSize) {
+        this(projectService, store, new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize), ImportInteractor::newThread));
+    }
+
+    ImportInteractor(ProjectService projectService, PersistentStore store, ExecutorService executor) {
+        this.projectService = projectService;
+        this.store = store;
+        this.executor = executor;
+    }
+
+    private static Thread newThread(Runnable runnable) {
+        final var thread = new Thread(runnable, "import");
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    @Override
+    public ImportDto startImport(UUID projectId, InputStream stream) {
+        if (store.getProject(projectId).isEmpty()) {
+            throw new NotFoundException("project", projectId);
+        }
+        evictFinishedJobs();
+
+        final var digest = Sha256.digest();
+        final var file = spool(new DigestInputStream(stream, digest));
+        final var hash = Sha256.hex(digest.digest());
+        final var job = new ImportJob(UUID.randomUUID(), projectId);
+        jobs.put(job.getId(), job);
+        try {
+            executor.execute(new ImportTask(job, file, hash));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            delete(file);
+            throw new BusyException("Too many pending imports; please retry later");
+        }
+        LOG.info("Scheduled import job {} for project {}", job, projectId);
+        return DtoConverter.toDto(job);
+    }
+
+    @Override
+    public ImportDto findImport(UUID jobId) {
+        final var job = jobs.get(jobId);
+        if (job == null) {
+            throw new NotFoundException("import", jobId);
+        }
+        return DtoConverter.toDto(job);
+    }
+
+    /**
+     * Runs the task, unless another import of the same project is running. In that case the task is handed over
+     * to the thread of the running import, which processes the waiting task of the project before finishing.
+     * A task that was already waiting is superseded, so at most one task per running import is waiting.
+     */
+    private void serialize(ImportTask task) {
+        final var projectId = task.job.getProjectId();
+        final boolean handedOver;
+        @NullOr ImportTask superseded = null;
+        synchronized (running) {
+            handedOver = !running.add(projectId);
+            if (handedOver) {
+                superseded = waiting.put(projectId, task);
+            }
+        }
+        if (handedOver) {
+            if (superseded != null) {
+                superseded.cancel("Superseded by a later upload");
+            }
+            return;
+        }
+        @NullOr ImportTask next = task;
+        while (next != null) {
+            process(next.job, next.file, next.hash);
+            synchronized (running) {
+                next = waiting.remove(projectId);
+                if (next == null) {
+                    running.remove(projectId);
+                }
+            }
+        }
+    }
+
+    private void process(ImportJob job, Path file, String hash) {
+        job.start();
+        try (final var stream = Files.newInputStream(file)) {
+            projectService.importSpdx(job.getProjectId(), stream, hash, job);
+            job.complete();
+            LOG.info("Completed import job {} with {} dependencies", job, job.getDependencyCount());
+        } catch (Exception e) {
+            job.fail(e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+            LOG.warn("Import job {} failed", job.getId(), e);
+        } finally {
+            delete(file);
+        }
+    }
+
+    private Path spool(InputStream stream) {
+        try {
+            final var file = Files.createTempFile("bombar-import-", ".bom");
+            try {
+                Files.copy(stream, file, StandardCopyOption.REPLACE_EXISTING);
+                return file;
+            } catch (IOException e) {
+                delete(file);
+                throw e;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to store uploaded file", e);
+        }
+    }
+
+    private void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            LOG.warn("Failed to delete temporary file {}", file);
+        }
+    }
+
+    private void evictFinishedJobs() {
+        final var threshold = Instant.now().minus(RETENTION);
+        jobs.values().removeIf(job -> job.getFinished().map(threshold::isAfter).orElse(false));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        final var cancelled = new ArrayList<Runnable>(executor.shutdownNow());
+        synchronized (running) {
+            cancelled.addAll(waiting.values());
+            waiting.clear();
+        }
+        cancelled.stream()
+                .filter(task -> task instanceof ImportTask)
+                .forEach(task -> ((ImportTask) task).cancel("Cancelled by shutdown"));
+    }
+
+    private class ImportTask implements Runnable {
+        private final ImportJob job;
+        private final Path file;
+        private final String hash;
+
+        ImportTask(ImportJob job, Path file, String hash) {
+            this.job = job;
+            this.file = file;
+            this.hash = hash;
+        }
+
+        @Override
+        public void run() {
+            serialize(this);
+        }
+
+        void cancel(String reason) {
+            job.fail(reason);
+            delete(file);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2020-2021, Koninklijke Philips N.V., https://www.philips.com
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.philips.research.bombar.core.domain;
+
+import com.philips.research.bombar.core.ProjectService;
+import pl.tlinkowski.annotation.basic.NullOr;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Progress of the background import of a bill-of-materials into a project.
+ * Updated by the importing thread while being read by others.
+ */
+public class ImportJob implements ProjectService.ImportListener {
+    private final UUID id;
+    private final UUID projectId;
+    private final Instant created;
+
+    private volatile Phase phase = Phase.QUEUED;
+    private volatile int dependencyCount;
+    private volatile int violationCount;
+    private volatile boolean unchanged;
+    private volatile @NullOr String error;
+    private volatile @NullOr Instant finished;
+
+    public ImportJob(UUID id, UUID projectId) {
+        this.id = id;
+        this.projectId = projectId;
+        this.created = Instant.now();
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public UUID getProjectId() {
+        return projectId;
+    }
+
+    public Instant getCreated() {
+        return created;
+    }
+
+    public Phase getPhase() {
+        return phase;
+    }
+
+    public int getDependencyCount() {
+        return dependencyCount;
+    }
+
+    public int getViolationCount() {
+        return violationCount;
+    }
+
+    public boolean isUnchanged() {
+        return unchanged;
+    }
+
+    public Optional<String> getError() {
+        return Optional.ofNullable(error);
+    }
+
+    public Optional<Instant> getFinished() {
+        return Optional.ofNullable(finished);
+    }
+
+    public boolean isFinished() {
+        return phase == Phase.COMPLETED || phase == Phase.FAILED;
+    }
+
+    public ImportJob start() {
+        phase = Phase.PARSING;
+        return this;
+    }
+
+    @Override
+    public void parsed(int dependencies) {
+        dependencyCount = dependencies;
+        phase = Phase.PERSISTING;
+    }
+
+    @Override
+    public void persisted() {
+        phase = Phase.CHECKING;
+    }
+
+    @Override
+    public void checked(int violations) {
+        violationCount = violations;
+    }
+
+    @Override
+    public void unchanged() {
+        unchanged = true;
+    }
+
+    public ImportJob complete() {
+        finished = Instant.now();
+        phase = Phase.COMPLETED;
+        return this;
+    }
+
+    public ImportJob fail(String message) {
+        error = message;
+        finished = Instant.now();
+        phase = Phase.FAILED;
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s (%s)", id, phase.name().toLowerCase());
+    }
+
+    public enum Phase {
+        QUEUED, PARSING, PERSISTING, CHECKING, COMPLETED, FAILED
+    }
+}
@@ -0,0 +1,29 @@
+/*
+ * Copyright (c) 2020-2021, Koninklijke Philips N.V., https://www.philips.com
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.philips.research.bombar.core.domain;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Dedicated threads for checking the licenses of large projects in parallel,
+ * so the checks do not compete with other users of the common fork-join pool.
+ */
+@Configuration
+public class LicenseCheckConfiguration {
+    @Bean(destroyMethod = "shutdownNow")
+    public ForkJoinPool licenseCheckPool(@Value("${bombar.check.threads:0}") int threads) {
+        final var parallelism = (threads > 0) ? threads : Runtime.getRuntime().availableProcessors();
+        return new ForkJoinPool(parallelism, pool -> {
+            final var thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("license-check-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+    }
+}
@@ -0,0 +1,273 @@
+/*
+ * Copyright (c) 2020-2021, Koninklijke Philips N.V., https://www.philips.com
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.philips.research.bombar.core.domain;
+
+import pl.tlinkowski.annotation.basic.NullOr;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable syntax tree of an SPDX license expression.
+ * <p>
+ * Parsing is lenient: Consecutive identifiers without an operator form a single (free text) license name,
+ * and unbalanced parentheses or dangling operators are ignored. Parsed expressions are interned in a
+ * bounded cache, because most dependencies share a small number of distinct expressions.
+ * </p>
+ */
+public abstract class LicenseExpression {
+    public static final LicenseExpression EMPTY = new Compound(Operator.AND, List.of());
+    static final int CACHE_SIZE = 1024;
+
+    private static final Map<String, LicenseExpression> CACHE = Collections.synchronizedMap(
+            new LinkedHashMap<>(CACHE_SIZE, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, LicenseExpression> eldest) {
+                    return size() > CACHE_SIZE;
+                }
+            });
+
+    /**
+     * @param expression SPDX license expression
+     * @return the (shared) syntax tree of the expression
+     */
+    public static LicenseExpression parse(String expression) {
+        final @NullOr LicenseExpression cached = CACHE.get(expression);
+        if (cached != null) {
+            return cached;
+        }
+        final var parsed = new Parser(expression).parse();
+        CACHE.put(expression, parsed);
+        return parsed;
+    }
+
+    /**
+     * @return distinct license names in order of appearance, with any exception appended as "WITH" clause
+     */
+    public abstract List<String> getLicenses();
+
+    /**
+     * @return true if the expression offers a choice between licenses
+     */
+    public abstract boolean hasAlternatives();
+
+    public boolean isEmpty() {
+        return getLicenses().isEmpty();
+    }
+
+    public enum Operator {AND, OR}
+
+    /**
+     * License identifier with an optional exception.
+     */
+    public static final class License extends LicenseExpression {
+        private final String identifier;
+        private final @NullOr String exception;
+        private final List<String> licenses;
+
+        License(String identifier, @NullOr String exception) {
+            this.identifier = identifier;
+            this.exception = exception;
+            this.licenses = List.of(toString());
+        }
+
+        public String getIdentifier() {
+            return identifier;
+        }
+
+        public Optional<String> getException() {
+            return Optional.ofNullable(exception);
+        }
+
+        @Override
+        public List<String> getLicenses() {
+            return licenses;
+        }
+
+        @Override
+        public boolean hasAlternatives() {
+            return false;
+        }
+
+        @Override
+        public String toString() {
+            return (exception != null) ? identifier + " WITH " + exception : identifier;
+        }
+    }
+
+    /**
+     * Combination of expressions by a logical operator.
+     */
+    public static final class Compound extends LicenseExpression {
+        private final Operator operator;
+        private final List<LicenseExpression> operands;
+        private final List<String> licenses;
+
+        Compound(Operator operator, List<LicenseExpression> operands) {
+            this.operator = operator;
+            this.operands = List.copyOf(operands);
+            this.licenses = operands.stream()
+                    .flatMap(op -> op.getLicenses().stream())
+                    .distinct()
+                    .collect(Collectors.toUnmodifiableList());
+        }
+
+        public Operator getOperator() {
+            return operator;
+        }
+
+        public List<LicenseExpression> getOperands() {
+            return operands;
+        }
+
+        @Override
+        public List<String> getLicenses() {
+            return licenses;
+        }
+
+        @Override
+        public boolean hasAlternatives() {
+            return (operator == Operator.OR && operands.size() > 1)
+                    || operands.stream().anyMatch(LicenseExpression::hasAlternatives);
+        }
+
+        @Override
+        public String toString() {
+            return operands.stream()
+                    .map(op -> (op instanceof Compound) ? "(" + op + ")" : op.toString())
+                    .collect(Collectors.joining(" " + operator + " "));
+        }
+    }
+
+    /**
+     * Recursive descent parser, where WITH takes precedence over AND, and AND over OR.
+     */
+    private static class Parser {
+        private final List<String> tokens = new ArrayList<>();
+        private int pos;
+
+        Parser(String expression) {
+            tokenize(expression);
+        }
+
+        private void tokenize(String expression) {
+            var i = 0;
+            while (i < expression.length()) {
+                final var ch = expression.charAt(i);
+                if (Character.isWhitespace(ch)) {
+                    i++;
+                } else if (ch == '(' || ch == ')') {
+                    tokens.add(String.valueOf(ch));
+                    i++;
+                } else if (ch == '"') {
+                    final var end = expression.indexOf('"', i + 1);
+                    final var next = (end < 0) ? expression.length() : end + 1;
+                    tokens.add(expression.substring(i, next));
+                    i = next;
+                } else {
+                    final var start = i;
+                    while (i < expression.length() && !isDelimiter(expression.charAt(i))) {
+                        i++;
+                    }
+                    tokens.add(expression.substring(start, i));
+                }
+            }
+        }
+
+        private boolean isDelimiter(char ch) {
+            return Character.isWhitespace(ch) || ch == '(' || ch == ')' || ch == '"';
+        }
+
+        LicenseExpression parse() {
+            final var parts = new ArrayList<LicenseExpression>();
+            while (pos < tokens.size()) {
+                add(parts, or());
+                if (pos < tokens.size()) {
+                    // Skip unbalanced closing parenthesis or dangling operator
+                    pos++;
+                }
+            }
+            return combine(Operator.AND, parts);
+        }
+
+        private LicenseExpression or() {
+            final var operands = new ArrayList<LicenseExpression>();
+            add(operands, and());
+            while (accept("OR")) {
+                add(operands, and());
+            }
+            return combine(Operator.OR, operands);
+        }
+
+        private LicenseExpression and() {
+            final var operands = new ArrayList<LicenseExpression>();
+            add(operands, primary());
+            while (accept("AND")) {
+                add(operands, primary());
+            }
+            return combine(Operator.AND, operands);
+        }
+
+        private @NullOr LicenseExpression primary() {
+            if (accept("(")) {
+                final var expression = or();
+                accept(")");
+                return expression;
+            }
+            final var name = name();
+            if (name == null) {
+                return null;
+            }
+            final var exception = accept("WITH") ? name() : null;
+            return new License(name, exception);
+        }
+
+        private @NullOr String name() {
+            final var words = new ArrayList<String>();
+            while (pos < tokens.size() && !isReserved(tokens.get(pos))) {
+                words.add(tokens.get(pos++));
+            }
+            return words.isEmpty() ? null : String.join(" ", words);
+        }
+
+        private boolean isReserved(String token) {
+            return token.equals("(") || token.equals(")")
+                    || token.equals("AND") || token.equals("OR") || token.equals("WITH");
+        }
+
+        private boolean accept(String token) {
+            if (pos < tokens.size() && tokens.get(pos).equals(token)) {
+                pos++;
+                return true;
+            }
+            return false;
+        }
+
+        private void add(List<LicenseExpression> operands, @NullOr LicenseExpression expression) {
+            if (expression != null && expression != EMPTY) {
+                operands.add(expression);
+            }
+        }
+
+        private LicenseExpression combine(Operator operator, List<LicenseExpression> operands) {
+            if (operands.isEmpty()) {
+                return EMPTY;
+            }
+            if (operands.size() == 1) {
+                return operands.get(0);
+            }
+            final var flattened = new ArrayList<LicenseExpression>();
+            operands.forEach(op -> {
+                if (op instanceof Compound && ((Compound) op).getOperator() == operator) {
+                    flattened.addAll(((Compound) op).getOperands());
+                } else {
+                    flattened.add(op);
+                }
+            });
+            return new Compound(operator, flattened);
+        }
+    }
+}
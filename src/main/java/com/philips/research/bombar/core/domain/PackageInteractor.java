@@ -24,9 +24,11 @@ public class PackageInteractor implements PackageService {
     private static final Logger LOG = LoggerFactory.getLogger(PackageInteractor.class);
 
     private final PersistentStore store;
+    private final RecheckQueue recheckQueue;
 
-    public PackageInteractor(PersistentStore store) {
+    public PackageInteractor(PersistentStore store, RecheckQueue recheckQueue) {
         this.store = store;
+        this.recheckQueue = recheckQueue;
     }
 
     @Override
@@ -47,6 +49,7 @@ public class PackageInteractor implements PackageService {
     public void exemptLicense(URI reference, String license) {
         final var pkg = getPackageDefinition(reference);
         pkg.exemptLicense(license);
+        invalidateProjects(pkg);
         LOG.info("Exempted license '{}' for package {}", license, reference);
     }
 
@@ -54,6 +57,7 @@ public class PackageInteractor implements PackageService {
     public void unExemptLicense(URI reference, String license) {
         final var pkg = getPackageDefinition(reference);
         pkg.removeLicenseExemption(license);
+        invalidateProjects(pkg);
         LOG.info("Revoked license '{}' exemption for package {}", license, reference);
     }
 
@@ -61,6 +65,7 @@ public class PackageInteractor implements PackageService {
     public void setApproval(URI reference, Approval approval) {
         final var pkg = getPackageDefinition(reference);
         pkg.setAcceptance(map(approval));
+        invalidateProjects(pkg);
         LOG.info("Updated approval of {} to {}", reference, approval.name());
     }
 
@@ -80,6 +85,18 @@ public class PackageInteractor implements PackageService {
         }
     }
 
+    /**
+     * Invalidates the license check results of all projects using the package,
+     * and queues these projects for a license re-check in the background.
+     */
+    private void invalidateProjects(Package pkg) {
+        final var projects = store.findProjectsUsing(pkg);
+        projects.forEach(Project::invalidateSource);
+        recheckQueue.schedule(projects.stream()
+                .map(Project::getId)
+                .collect(Collectors.toList()));
+    }
+
     private Package getPackageDefinition(URI reference) {
         return store.getPackageDefinition(new PackageRef(reference))
                 .orElseThrow(() -> new NotFoundException("Package", reference));
@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2020-2021, Koninklijke Philips N.V., https://www.philips.com
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.philips.research.bombar.core.domain;
+
+import com.philips.research.bombar.core.PersistentStore;
+import pl.tlinkowski.annotation.basic.NullOr;
+
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Collects package references to resolve them against the persistent store in bulk,
+ * creating the package definitions that do not exist yet.
+ */
+public class PackageResolver {
+    private final PersistentStore store;
+    private final Map<PackageRef, List<Consumer<Package>>> requests = new LinkedHashMap<>();
+
+    public PackageResolver(PersistentStore store) {
+        this.store = store;
+    }
+
+    /**
+     * Registers a package reference for resolution.
+     *
+     * @param reference package to resolve
+     * @param consumer  receives the package definition upon resolution
+     */
+    public PackageResolver add(PackageRef reference, Consumer<Package> consumer) {
+        requests.computeIfAbsent(reference, ref -> new ArrayList<>()).add(consumer);
+        return this;
+    }
+
+    /**
+     * Resolves all registered package references.
+     */
+    public void resolve() {
+        if (requests.isEmpty()) {
+            return;
+        }
+
+        final var packages = new HashMap<PackageRef, Package>();
+        store.getPackageDefinitions(List.copyOf(requests.keySet()))
+                .forEach(pkg -> packages.put(pkg.getReference(), pkg));
+        final var missing = new ArrayList<PackageRef>();
+        requests.keySet().stream()
+                .filter(ref -> !packages.containsKey(ref))
+                .forEach(missing::add);
+        if (!missing.isEmpty()) {
+            store.createPackageDefinitions(missing)
+                    .forEach(pkg -> packages.put(pkg.getReference(), pkg));
+        }
+
+        requests.forEach((ref, consumers) -> {
+            final @NullOr Package pkg = packages.get(ref);
+            if (pkg != null) {
+                consumers.forEach(consumer -> consumer.accept(pkg));
+            }
+        });
+        requests.clear();
+    }
+}
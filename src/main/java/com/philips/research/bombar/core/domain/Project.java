@@ -18,6 +18,8 @@ public class Project {
     private String title = "";
     private @NullOr Instant lastUpdate;
     private int issueCount;
+    private @NullOr String sourceHash;
+    private @NullOr String registryVersion;
     private Distribution distribution = Distribution.PROPRIETARY;
     private Phase phase = Phase.DEVELOPMENT;
 
@@ -25,13 +27,52 @@ public class Project {
         this.uuid = uuid;
     }
 
+    /**
+     * Updates the derived information of the project and its dependencies in linear passes over all relations.
+     */
     public Project postProcess() {
         issueCount = dependencies.values().stream().mapToInt(Dependency::getIssueCount).sum();
-        getRootDependencies().forEach(Dependency::setRoot);
+        dependencies.values().forEach(dep -> dep.clearStrongestUsage().clearStatus());
+        dependencies.values().forEach(dep -> dep.getRelations()
+                .forEach(relation -> relation.getTarget().updateStrongestUsage(relation.getType())));
+        dependencies.values().stream()
+                .filter(dep -> dep.getStrongestUsage().isEmpty())
+                .forEach(Dependency::setRoot);
+        propagateStatus();
 
         return this;
     }
 
+    /**
+     * Propagates the delivery status breadth-first from the (delivered) roots through all relations.
+     * Dependencies reached through an irrelevant relation, or from a development dependency, are used for
+     * development, and dependencies reached from a delivered dependency through any other relation are delivered.
+     * A dependency is only revisited when it gains a status, so every relation is followed at most twice.
+     */
+    private void propagateStatus() {
+        final var queue = new ArrayDeque<Dependency>();
+        dependencies.values().stream().filter(Dependency::isRoot).forEach(queue::add);
+        while (!queue.isEmpty()) {
+            final var dependency = queue.remove();
+            for (var relation : dependency.getRelations()) {
+                final var target = relation.getTarget();
+                final var irrelevant = relation.getType() == Relation.Relationship.IRRELEVANT;
+                var changed = false;
+                if ((irrelevant || dependency.isDevelopment()) && !target.isDevelopment()) {
+                    target.setDevelopment();
+                    changed = true;
+                }
+                if (!irrelevant && dependency.isDelivered() && !target.isDelivered()) {
+                    target.setDelivered();
+                    changed = true;
+                }
+                if (changed) {
+                    queue.add(target);
+                }
+            }
+        }
+    }
+
     public UUID getId() {
         return uuid;
     }
@@ -54,7 +95,65 @@ public class Project {
         return this;
     }
 
+    /**
+     * @return hash of the imported bill-of-materials, if any
+     */
+    public Optional<String> getSourceHash() {
+        return Optional.ofNullable(sourceHash);
+    }
+
+    /**
+     * @return version of the license registry that was used to check the imported bill-of-materials
+     */
+    public Optional<String> getRegistryVersion() {
+        return Optional.ofNullable(registryVersion);
+    }
+
+    /**
+     * Registers the source of the current dependencies.
+     *
+     * @param hash            hash of the imported bill-of-materials
+     * @param registryVersion version of the license registry used to check the dependencies
+     */
+    public Project setSource(String hash, String registryVersion) {
+        this.sourceHash = hash;
+        this.registryVersion = registryVersion;
+        return this;
+    }
+
+    /**
+     * Forces the next import to be processed, because the license check results are outdated.
+     */
+    public Project invalidateSource() {
+        sourceHash = null;
+        registryVersion = null;
+        return this;
+    }
+
+    /**
+     * Marks the stored violations of the dependencies as checked using the given licenses.
+     */
+    public Project setChecked(String registryVersion) {
+        this.registryVersion = registryVersion;
+        return this;
+    }
+
+    /**
+     * @return true if the stored violations of the dependencies were checked using the given licenses
+     */
+    public boolean isCheckedWith(String registryVersion) {
+        return registryVersion.equals(this.registryVersion);
+    }
+
+    /**
+     * @return true if the project was already imported from the same source and checked using the same licenses
+     */
+    public boolean isImportedFrom(String hash, String registryVersion) {
+        return hash.equals(sourceHash) && registryVersion.equals(this.registryVersion);
+    }
+
     public Project exempt(Dependency dependency, String rationale) {
+        invalidateSource();
         dependency.getPackageReference().ifPresent(reference -> {
             packageExemptions.put(reference, rationale);
             dependencies.values().stream()
@@ -65,6 +164,7 @@ public class Project {
     }
 
     public Project unexempt(Dependency dependency) {
+        invalidateSource();
         dependency.getPackageReference().ifPresent(reference -> {
             packageExemptions.remove(reference);
             dependencies.values().stream()
@@ -74,11 +174,16 @@ public class Project {
         return this;
     }
 
+    /**
+     * @return all dependencies without any incoming relation
+     */
     public Collection<Dependency> getRootDependencies() {
-        final var roots = new ArrayList<>(dependencies.values());
+        final var targets = new HashSet<Dependency>();
+        dependencies.values().forEach(dep -> dep.getRelations().forEach(rel -> targets.add(rel.getTarget())));
+        final var roots = new ArrayList<Dependency>();
         dependencies.values().stream()
-                .flatMap(dep -> dep.getRelations().stream())
-                .forEach(rel -> roots.remove(rel.getTarget()));
+                .filter(dep -> !targets.contains(dep))
+                .forEach(roots::add);
         return roots;
     }
 
@@ -100,6 +205,35 @@ public class Project {
         return this;
     }
 
+    /**
+     * Adds a dependency if it is not yet part of the project, and (re-)applies any package exemption.
+     */
+    Project mergeDependency(Dependency dependency) {
+        dependencies.putIfAbsent(dependency.getKey(), dependency);
+        setExemptions(dependency);
+        return this;
+    }
+
+    /**
+     * Changes the identifier of a dependency of the project.
+     */
+    Project rekeyDependency(Dependency dependency, String key) {
+        dependencies.remove(dependency.getKey());
+        dependency.setKey(key);
+        dependencies.put(key, dependency);
+        return this;
+    }
+
+    /**
+     * Removes a dependency with all relations to it.
+     */
+    Project removeDependency(Dependency dependency) {
+        dependencies.remove(dependency.getKey());
+        dependency.getUsages().forEach(parent -> parent.removeRelationsTo(dependency));
+        dependency.getRelations().forEach(relation -> relation.getTarget().removeUsage(dependency));
+        return this;
+    }
+
     public Project addRelationship(Dependency parent, Dependency child, Relation.Relationship relationship) {
         validateDependency(parent);
         validateDependency(child);
@@ -110,7 +244,7 @@ public class Project {
     }
 
     private void validateDependency(Dependency dependency) {
-        if (!dependencies.containsValue(dependency)) {
+        if (!dependency.equals(dependencies.get(dependency.getKey()))) {
             throw new DomainException("Dependency " + dependency + " is not part of project " + this);
         }
     }
@@ -131,6 +265,9 @@ public class Project {
     }
 
     public Project setDistribution(Distribution distribution) {
+        if (distribution != this.distribution) {
+            invalidateSource();
+        }
         this.distribution = distribution;
         return this;
     }
@@ -8,6 +8,7 @@ package com.philips.research.bombar.core.domain;
 import com.philips.research.bombar.core.NotFoundException;
 import com.philips.research.bombar.core.PersistentStore;
 import com.philips.research.bombar.core.ProjectService;
+import com.philips.research.bombar.core.cyclonedx.CycloneDxParser;
 import com.philips.research.bombar.core.domain.licenses.*;
 import com.philips.research.bombar.core.spdx.SpdxParser;
 import org.slf4j.Logger;
@@ -16,9 +17,11 @@ import org.springframework.stereotype.Service;
 import pl.tlinkowski.annotation.basic.NullOr;
 
 import javax.transaction.Transactional;
+import java.io.BufferedInputStream;
 import java.io.InputStream;
 import java.net.URI;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
@@ -26,17 +29,28 @@ import java.util.stream.Collectors;
 @Transactional
 public class ProjectInteractor implements ProjectService {
     private static final Logger LOG = LoggerFactory.getLogger(ProjectInteractor.class);
+    static final int MAX_PAGE_SIZE = 1000;
 
     private final PersistentStore store;
+    private final @NullOr ForkJoinPool checkPool;
 
-    public ProjectInteractor(PersistentStore store) {
+    /**
+     * @param checkPool threads to check the licenses of large projects in parallel, or <code>null</code> to
+     *                  check all projects on the calling thread
+     */
+    public ProjectInteractor(PersistentStore store, @NullOr ForkJoinPool checkPool) {
         this.store = store;
+        this.checkPool = checkPool;
     }
 
     @Override
-    public List<ProjectDto> findProjects(String fragment, int limit) {
-        final var projects = store.findProjects(fragment).stream()
-                .limit(limit)
+    public List<ProjectDto> findProjects(String fragment, @NullOr ProjectCursor after, int limit) {
+        if (limit < 1) {
+            return List.of();
+        }
+        final var lastUpdate = (after != null) ? after.updated : null;
+        final var lastId = (after != null) ? after.id : null;
+        final var projects = store.findProjects(fragment, lastUpdate, lastId, Math.min(limit, MAX_PAGE_SIZE)).stream()
                 .map(DtoConverter::toBaseDto)
                 .collect(Collectors.toList());
         LOG.info("List all projects for '{}' returned {} results", fragment, projects.size());
@@ -84,25 +98,63 @@ public class ProjectInteractor implements ProjectService {
     }
 
     @Override
-    public void importSpdx(UUID projectId, InputStream stream) {
+    public void importSpdx(UUID projectId, InputStream stream, String hash, ImportListener listener) {
         final var project = validProject(projectId);
-        // NOTE: Necessary because of failing orphan removal in JPA (reason is unknown)
-        store.deleteDependencies(project);
-        new SpdxParser(project, store).parse(stream);
-        checkLicenses(project);
+        final var registryVersion = Licenses.REGISTRY.getVersion();
+        if (project.isImportedFrom(hash, registryVersion)) {
+            listener.unchanged();
+            LOG.info("Skipped import of unchanged bill-of-materials into project {}", project);
+            return;
+        }
+        // Loads all existing dependencies at once, before they are merged with the import
+        validProjectGraph(projectId);
+
+        final var buffered = new BufferedInputStream(stream);
+        if (CycloneDxParser.isCycloneDx(buffered)) {
+            new CycloneDxParser(project, store).parse(buffered);
+        } else {
+            new SpdxParser(project, store).parse(buffered);
+        }
+        listener.parsed(project.getDependencies().size());
+        store.flush();
+        listener.persisted();
+        final var violations = checkLicenses(project, checkPool);
+        listener.checked(violations.size());
+        project.setSource(hash, registryVersion);
         LOG.info("Imported {} dependencies into project {}", project.getDependencies().size(), project);
     }
 
-    private List<LicenseViolation> checkLicenses(Project project) {
-        return new LicenseChecker(Licenses.REGISTRY, project).violations();
+    @Override
+    public int checkLicenses(Collection<UUID> projectIds) {
+        final var version = Licenses.REGISTRY.getVersion();
+        var count = 0;
+        for (var id : projectIds) {
+            final var project = store.getProject(id)
+                    .filter(p -> !p.isCheckedWith(version))
+                    .flatMap(p -> store.getProjectGraph(id));
+            if (project.isPresent()) {
+                // Checks on the calling (background) thread, to stay within the threads of the caller
+                final var violations = checkLicenses(project.get(), null);
+                LOG.info("Re-checked licenses of project {} with {} violations", project.get(), violations.size());
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private List<LicenseViolation> checkLicenses(Project project, @NullOr ForkJoinPool pool) {
+        final var violations = new LicenseChecker(Licenses.REGISTRY, project, pool).violations();
+        project.setChecked(Licenses.REGISTRY.getVersion());
+        return violations;
     }
 
     @Override
     public List<DependencyDto> findDependencies(UUID projectId) {
         final var project = validProject(projectId);
-        LOG.info("Read {} dependencies from project {}", project.getDependencies().size(), project);
+        final var dependencies = store.findDependencySummaries(project);
+        LOG.info("Read {} dependencies from project {}", dependencies.size(), project);
 
-        return project.getDependencies().stream()
+        return dependencies.stream()
                 .map(DtoConverter::toBaseDto)
                 .collect(Collectors.toList());
     }
@@ -111,9 +163,14 @@ public class ProjectInteractor implements ProjectService {
     public DependencyDto findDependency(UUID projectId, String dependencyId) {
         final var project = validProject(projectId);
         final var dependency = validDependency(project, dependencyId);
-        final var violations = new LicenseChecker(Licenses.REGISTRY, project).violations(dependency);
+        if (!project.isCheckedWith(Licenses.REGISTRY.getVersion())) {
+            // Loads all dependencies at once, because the check walks the complete graph
+            validProjectGraph(projectId);
+            checkLicenses(project, checkPool);
+            LOG.info("Re-checked licenses of project {}", project);
+        }
         LOG.info("Read dependency {} from project {}", dependency, project);
-        return DtoConverter.toDto(dependency, violations);
+        return DtoConverter.toDto(dependency);
     }
 
     @Override
@@ -141,7 +198,7 @@ public class ProjectInteractor implements ProjectService {
 
     @Override
     public Map<String, Integer> licenseDistribution(UUID projectId) {
-        final var project = validProject(projectId);
+        final var project = validProjectGraph(projectId);
         return new LicenseAnalyzer()
                 .addProject(project)
                 .getDistribution();
@@ -153,7 +210,7 @@ public class ProjectInteractor implements ProjectService {
 
     @Override
     public Map<String, Set<DependencyDto>> findObligations(UUID projectId) {
-        final var project = validProject(projectId);
+        final var project = validProjectGraph(projectId);
         final var obligations = createObligationAnalyzerInstance(project).findObligations();
         return obligations.entrySet().stream()
                 .collect(Collectors.toMap(Map.Entry::getKey, e -> e.getValue().stream()
@@ -177,6 +234,11 @@ public class ProjectInteractor implements ProjectService {
                 .orElseThrow(() -> new NotFoundException("project", projectId));
     }
 
+    private Project validProjectGraph(UUID projectId) {
+        return store.getProjectGraph(projectId)
+                .orElseThrow(() -> new NotFoundException("project", projectId));
+    }
+
     private Dependency validDependency(Project project, String dependencyId) {
         return project.getDependency(dependencyId)
                 .orElseThrow(() -> new NotFoundException("dependency", dependencyId));
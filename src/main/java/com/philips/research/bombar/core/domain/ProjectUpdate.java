@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2020-2021, Koninklijke Philips N.V., https://www.philips.com
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.philips.research.bombar.core.domain;
+
+import com.philips.research.bombar.core.PersistentStore;
+import pl.tlinkowski.annotation.basic.NullOr;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Replaces the dependencies of a project by an imported set of dependencies, while
+ * reusing the existing (persisted) dependencies that match an imported dependency.
+ * Imported dependencies are staged during the import, and merged into the project in
+ * one step. Dependencies are matched on their identifier, or else (for dependencies
+ * without an identifier or with an unknown identifier) on their package URL.
+ * Only the changed attributes of matched dependencies are updated, new dependencies
+ * are created (in bulk), and dependencies that are no longer imported are deleted (in bulk).
+ * A dependency matched on its package URL takes the identifier of the imported dependency,
+ * so the stored identifiers keep referring to the last imported document. Only imported
+ * dependencies without an identifier leave the identifier of the matched dependency unchanged,
+ * to avoid assigning a new random identifier on every import.
+ */
+public class ProjectUpdate {
+    private final Project project;
+    private final PersistentStore store;
+    private final Map<Dependency, Dependency> staged = new LinkedHashMap<>(); // Value is the merged dependency
+    private final Set<Dependency> anonymous = new HashSet<>();
+
+    public ProjectUpdate(Project project, PersistentStore store) {
+        this.project = project;
+        this.store = store;
+    }
+
+    /**
+     * Stages a new dependency for the project.
+     *
+     * @param key   identifier of the dependency within the imported document, if any
+     * @param title human readable identification
+     * @return transient dependency to be completed before merging
+     */
+    public Dependency stage(@NullOr String key, String title) {
+        final var dependency = new Dependency(key, title);
+        if (staged.containsKey(dependency)) {
+            throw new DomainException(String.format("Project %s contains duplicate dependency %s", project.getId(), key));
+        }
+        staged.put(dependency, dependency);
+        if (key == null) {
+            anonymous.add(dependency);
+        }
+        return dependency;
+    }
+
+    /**
+     * Merges all staged dependencies into the project, creating all new dependencies in bulk.
+     */
+    public void merge() {
+        final var existing = new HashMap<String, Dependency>();
+        project.getDependencies().forEach(dep -> existing.put(dep.getKey(), dep));
+        final var matched = new HashMap<Dependency, Dependency>();
+
+        staged.keySet().stream()
+                .filter(dep -> existing.containsKey(dep.getKey()))
+                .forEach(dep -> matched.put(dep, existing.remove(dep.getKey())));
+        matchOnPackageUrl(existing, matched);
+
+        final var created = staged.keySet().stream()
+                .filter(dep -> !matched.containsKey(dep))
+                .collect(Collectors.toList());
+        final var persisted = store.createDependencies(project, created).iterator();
+        staged.replaceAll((dep, merged) -> {
+            final @NullOr Dependency target = matched.get(dep);
+            return (target != null) ? target.reset().copy(dep) : persisted.next();
+        });
+        existing.values().forEach(project::removeDependency);
+        if (!existing.isEmpty()) {
+            store.deleteDependencies(existing.values());
+        }
+        matched.forEach((dep, target) -> {
+            if (!anonymous.contains(dep) && !dep.getKey().equals(target.getKey())) {
+                project.rekeyDependency(target, dep.getKey());
+            }
+        });
+        staged.values().forEach(project::mergeDependency);
+    }
+
+    /**
+     * Matches the remaining imported dependencies by their package URL.
+     */
+    private void matchOnPackageUrl(Map<String, Dependency> existing, Map<Dependency, Dependency> matched) {
+        final var byPurl = new HashMap<String, Deque<Dependency>>();
+        existing.values()
+                .forEach(dep -> dep.getPurl().ifPresent(purl ->
+                        byPurl.computeIfAbsent(purl.canonicalize(), p -> new ArrayDeque<>()).add(dep)));
+
+        staged.keySet().stream()
+                .filter(dep -> !matched.containsKey(dep))
+                .forEach(dep -> dep.getPurl()
+                        .map(purl -> byPurl.get(purl.canonicalize()))
+                        .filter(candidates -> !candidates.isEmpty())
+                        .ifPresent(candidates -> {
+                            final var target = candidates.remove();
+                            matched.put(dep, target);
+                            existing.remove(target.getKey());
+                        }));
+    }
+
+    /**
+     * @param dependency staged dependency
+     * @return the project dependency the staged dependency was merged into
+     */
+    public Dependency merged(Dependency dependency) {
+        final @NullOr Dependency merged = staged.get(dependency);
+        if (merged == null) {
+            throw new DomainException("Dependency " + dependency + " was not staged for project " + project);
+        }
+        return merged;
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2020-2021, Koninklijke Philips N.V., https://www.philips.com
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.philips.research.bombar.core.domain;
+
+import com.philips.research.bombar.core.ProjectService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Re-checks the licenses of projects in the background.
+ * Projects are collected during a delay, so a burst of changes results in a single re-check per project,
+ * and are checked in batches (of one transaction each) by a single worker thread.
+ */
+@Service
+public class RecheckQueue {
+    private static final Logger LOG = LoggerFactory.getLogger(RecheckQueue.class);
+
+    private final ProjectService projectService;
+    private final ScheduledExecutorService executor;
+    private final Duration delay;
+    private final int batchSize;
+    private final Set<UUID> pending = new LinkedHashSet<>();
+    private boolean scheduled;
+
+    @Autowired
+    public RecheckQueue(ProjectService projectService,
+                        @Value("${bombar.recheck.delay:5}") int delaySeconds,
+                        @Value("${bombar.recheck.batch:10}") int batchSize) {
+        this(projectService, Executors.newSingleThreadScheduledExecutor(RecheckQueue::newThread),
+                Duration.ofSeconds(delaySeconds), batchSize);
+    }
+
+    RecheckQueue(ProjectService projectService, ScheduledExecutorService executor, Duration delay, int batchSize) {
+        this.projectService = projectService;
+        this.executor = executor;
+        this.delay = delay;
+        this.batchSize = batchSize;
+    }
+
+    private static Thread newThread(Runnable runnable) {
+        final var thread = new Thread(runnable, "recheck");
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    /**
+     * Queues projects for a license re-check.
+     * Within a transaction, the projects are only queued after the transaction is committed.
+     *
+     * @param projectIds projects to re-check
+     */
+    public void schedule(Collection<UUID> projectIds) {
+        if (projectIds.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            final var ids = List.copyOf(projectIds);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(ids);
+                }
+            });
+        } else {
+            enqueue(projectIds);
+        }
+    }
+
+    private synchronized void enqueue(Collection<UUID> projectIds) {
+        pending.addAll(projectIds);
+        if (!scheduled) {
+            scheduled = true;
+            executor.schedule(this::process, delay.toMillis(), TimeUnit.MILLISECONDS);
+            LOG.info("Scheduled license re-check of {} projects", pending.size());
+        }
+    }
+
+    private void process() {
+        final var batch = nextBatch();
+        try {
+            projectService.checkLicenses(batch);
+        } catch (Exception e) {
+            LOG.warn("License re-check of projects {} failed", batch, e);
+        }
+    }
+
+    /**
+     * Takes the next batch of pending projects, and continues processing if more projects are pending.
+     */
+    private synchronized List<UUID> nextBatch() {
+        final var batch = new ArrayList<UUID>();
+        final var iterator = pending.iterator();
+        while (iterator.hasNext() && batch.size() < batchSize) {
+            batch.add(iterator.next());
+            iterator.remove();
+        }
+        if (pending.isEmpty()) {
+            scheduled = false;
+        } else {
+            executor.execute(this::process);
+        }
+        return batch;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -21,11 +21,6 @@ public class Relation {
     Relation(Relationship type, Dependency target) {
         this.type = type;
         this.target = target;
-        if (type == Relationship.IRRELEVANT) {
-            target.setDevelopment();
-        } else {
-            target.setDelivered();
-        }
     }
 
     public Relationship getType() {
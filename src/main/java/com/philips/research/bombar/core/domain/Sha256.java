@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2020-2021, Koninklijke Philips N.V., https://www.philips.com
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.philips.research.bombar.core.domain;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * SHA-256 hashing of content, encoded as a (64 character) lowercase hexadecimal string.
+ */
+public final class Sha256 {
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private Sha256() {
+    }
+
+    /**
+     * @return new SHA-256 message digest
+     */
+    public static MessageDigest digest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("No SHA-256 support", e);
+        }
+    }
+
+    /**
+     * @return hex encoded hash of the UTF-8 encoded text
+     */
+    public static String of(String text) {
+        return hex(digest().digest(text.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * @return hex encoding of the (hash) bytes
+     */
+    public static String hex(byte[] bytes) {
+        final var hex = new char[2 * bytes.length];
+        for (var i = 0; i < bytes.length; i++) {
+            hex[2 * i] = HEX[(bytes[i] >> 4) & 0x0f];
+            hex[2 * i + 1] = HEX[bytes[i] & 0x0f];
+        }
+        return new String(hex);
+    }
+}
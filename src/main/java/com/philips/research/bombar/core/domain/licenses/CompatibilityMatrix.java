@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2020-2021, Koninklijke Philips N.V., https://www.philips.com
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.philips.research.bombar.core.domain.licenses;
+
+import com.philips.research.bombar.core.domain.Project.Distribution;
+import com.philips.research.bombar.core.domain.Relation.Relationship;
+import pl.tlinkowski.annotation.basic.NullOr;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Dense lookup table of the demands of a license that are not met by another license,
+ * for every combination of distribution and relationship.
+ * The first row of the table holds the unmet demands for a dependency without (known) license.
+ */
+final class CompatibilityMatrix {
+    private static final int DISTRIBUTIONS = Distribution.values().length;
+    private static final int RELATIONSHIPS = Relationship.values().length;
+
+    private final List<LicenseType> licenses;
+    private final List<List<Term>> table;
+
+    /**
+     * Compiles the matrix for the given licenses.
+     */
+    CompatibilityMatrix(List<LicenseType> licenses) {
+        this.licenses = List.copyOf(licenses);
+        final var size = licenses.size();
+        final var accepted = licenses.stream()
+                .map(LicenseType::acceptedIds)
+                .collect(Collectors.toList());
+
+        final var demanded = new ArrayList<BitSet>(size * DISTRIBUTIONS * RELATIONSHIPS);
+        for (var license : licenses) {
+            for (var distribution : Distribution.values()) {
+                for (var relationship : Relationship.values()) {
+                    demanded.add(license.demandIds(distribution, relationship));
+                }
+            }
+        }
+
+        final var table = new ArrayList<List<Term>>(Math.multiplyExact(size + 1, demanded.size()));
+        for (var source = -1; source < size; source++) {
+            final var iterator = demanded.iterator();
+            for (var license : licenses) {
+                for (var distribution : Distribution.values()) {
+                    for (var relationship : Relationship.values()) {
+                        var demands = iterator.next();
+                        if (source >= 0 && demands.intersects(accepted.get(source))) {
+                            demands = (BitSet) demands.clone();
+                            demands.andNot(accepted.get(source));
+                        }
+                        table.add(demands.isEmpty() ? List.of() : List.copyOf(license.demandsOf(demands, distribution, relationship)));
+                    }
+                }
+            }
+        }
+        this.table = table;
+    }
+
+    /**
+     * @param source       the license that must accept the demands, or <code>null</code> if there is no license
+     * @param target       the license that demands terms
+     * @param distribution distribution of the project
+     * @param relationship relationship from the source to the target
+     * @return all terms demanded by the target license that are not accepted by the source license
+     * @throws IllegalArgumentException if a license is not part of the matrix
+     */
+    List<Term> unmetDemands(@NullOr LicenseType source, LicenseType target, Distribution distribution, Relationship relationship) {
+        final var row = (source != null) ? indexOf(source) + 1 : 0;
+        final var index = ((row * licenses.size() + indexOf(target)) * DISTRIBUTIONS + distribution.ordinal()) * RELATIONSHIPS
+                + relationship.ordinal();
+        return table.get(index);
+    }
+
+    private int indexOf(LicenseType license) {
+        final var index = license.getIndex();
+        if (index < 0 || index >= licenses.size() || licenses.get(index) != license) {
+            throw new IllegalArgumentException("License '" + license + "' is not part of the registry");
+        }
+        return index;
+    }
+}
@@ -27,7 +27,7 @@ public class LicenseAnalyzer {
     public LicenseAnalyzer addProject(Project project) {
         project.getDependencies().stream()
                 .flatMap(dep -> {
-                    final var licenses = dep.getLicenses();
+                    final var licenses = dep.getLicenseExpression().getLicenses();
                     return licenses.isEmpty() ? Stream.of("(No license)") : licenses.stream();
                 })
                 .forEach(license -> frequencies.merge(license, 1, (value, x) -> value + 1));
@@ -6,22 +6,39 @@
 package com.philips.research.bombar.core.domain.licenses;
 
 import com.philips.research.bombar.core.domain.Dependency;
+import com.philips.research.bombar.core.domain.LicenseExpression;
 import com.philips.research.bombar.core.domain.Package;
 import com.philips.research.bombar.core.domain.Project;
 import com.philips.research.bombar.core.domain.Relation;
+import pl.tlinkowski.annotation.basic.NullOr;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Raises violations of license policies by checking if the demands for the assigned licenses are satisfied.
+ * <p>
+ * Checking takes three steps:
+ * <ol>
+ * <li>A depth-first traversal from the roots captures the relevant state of every reachable dependency,
+ * and records the order in which dependencies and relations are checked.</li>
+ * <li>All captured dependencies and their relations are evaluated independently, optionally in parallel.</li>
+ * <li>The evaluation results are merged in the recorded order, so the reported violations do not
+ * depend on the (parallel) evaluation order.</li>
+ * </ol>
+ * </p>
  */
 public class LicenseChecker {
+    static final int PARALLEL_THRESHOLD = 1000;
+
     private final LicenseRegistry registry;
     private final Project project;
-    private final Map<Dependency, List<LicenseType>> licenseCache = new HashMap<>();
-    private final Set<Dependency> done = new HashSet<>();
+    private final @NullOr ForkJoinPool pool;
     private final List<LicenseViolation> violations = new ArrayList<>();
+    private final Map<Dependency, List<LicenseViolation>> index = new HashMap<>();
 
     /**
      * Creates new checker using policies for a given project.
@@ -30,16 +47,25 @@ public class LicenseChecker {
      * @param project
      */
     public LicenseChecker(LicenseRegistry registry, Project project) {
+        this(registry, project, null);
+    }
+
+    /**
+     * Creates new checker that evaluates large projects in parallel.
+     *
+     * @param pool threads to evaluate dependencies, or <code>null</code> to evaluate on the calling thread
+     */
+    public LicenseChecker(LicenseRegistry registry, Project project, @NullOr ForkJoinPool pool) {
         this.registry = registry;
         this.project = project;
+        this.pool = pool;
     }
 
     /**
      * @return list of all violations detected in the project
      */
     public List<LicenseViolation> violations() {
-        clearCaches();
-        project.getRootDependencies().forEach(this::verify);
+        check(project.getRootDependencies());
         project.postProcess();
         return violations;
     }
@@ -49,137 +75,273 @@ public class LicenseChecker {
      * @return list of all violations related to the given dependency
      */
     public List<LicenseViolation> violations(Dependency dependency) {
-        clearCaches();
-        verify(dependency);
-        return violations.stream()
-                .filter(v -> v.getDependency() == dependency)
-                .collect(Collectors.toList());
+        check(List.of(dependency));
+        return new ArrayList<>(index.getOrDefault(dependency, List.of()));
     }
 
-    private void clearCaches() {
-        licenseCache.clear();
+    private void check(Collection<Dependency> roots) {
         violations.clear();
-        done.clear();
+        index.clear();
+
+        final var subjects = new HashMap<Dependency, Subject>();
+        final var steps = traverse(roots, subjects);
+        final var distribution = project.getDistribution();
+        evaluate(subjects.values(), subject -> subject.evaluateLicenses(registry, distribution));
+        evaluate(subjects.values(), subject -> subject.evaluateRelations(registry, subjects, distribution));
+        steps.forEach(step -> step.merge(this));
+
+        subjects.keySet().forEach(dep -> dep.setViolations(index.getOrDefault(dep, List.of()).stream()
+                .map(LicenseViolation::getMessage)
+                .collect(Collectors.toList())));
     }
 
-    private void verify(Dependency dependency) {
-        final var override = checkPackage(dependency);
-        if (!override) {
-            checkLicense(dependency);
+    /**
+     * Captures all (relevantly) reachable dependencies in depth-first order.
+     * Uses an explicit stack, because dependency chains can be too deep for recursion.
+     *
+     * @return the order in which dependencies and relations are checked
+     */
+    private List<Step> traverse(Collection<Dependency> roots, Map<Dependency, Subject> subjects) {
+        final var steps = new ArrayList<Step>();
+        final var stack = new ArrayDeque<Visit>();
+        for (var root : roots) {
+            if (subjects.containsKey(root)) {
+                continue;
+            }
+            stack.push(visit(root, subjects, steps));
+            while (!stack.isEmpty()) {
+                final var visit = stack.peek();
+                if (visit.next >= visit.subject.relations.size()) {
+                    stack.pop();
+                    continue;
+                }
+                final var relation = visit.subject.relations.get(visit.next);
+                steps.add(new Step(visit.subject, visit.next++));
+                final var target = relation.getTarget();
+                if (!subjects.containsKey(target)) {
+                    stack.push(visit(target, subjects, steps));
+                }
+            }
         }
-        done.add(dependency);
-        dependency.getRelations().stream()
-                .filter(relation -> relation.getType() != Relation.Relationship.IRRELEVANT)
-                .forEach(relation -> {
-                    checkRelation(dependency, relation);
-                    verify(relation);
-                });
-        dependency.setIssueCount((int) violations.stream()
-                .filter(v -> v.getDependency().equals(dependency))
-                .count());
+        return steps;
     }
 
-    private void verify(Relation relation) {
-        final var target = relation.getTarget();
-        if (!done.contains(target)) {
-            verify(target);
+    private Visit visit(Dependency dependency, Map<Dependency, Subject> subjects, List<Step> steps) {
+        final var subject = new Subject(dependency);
+        subjects.put(dependency, subject);
+        steps.add(new Step(subject, -1));
+        return new Visit(subject);
+    }
+
+    private void evaluate(Collection<Subject> subjects, Consumer<Subject> evaluation) {
+        if (pool != null && subjects.size() >= PARALLEL_THRESHOLD) {
+            pool.submit(() -> subjects.parallelStream().forEach(evaluation)).join();
+        } else {
+            subjects.forEach(evaluation);
         }
     }
 
-    private boolean checkPackage(Dependency dependency) {
-        return dependency.getPackage()
-                .flatMap(pkg -> Optional.of(checkPackageDefinition(pkg, dependency)))
-                .orElse(false);
+    private void violation(Dependency dependency, String message) {
+        final var violation = new LicenseViolation(dependency, message);
+        violations.add(violation);
+        index.computeIfAbsent(dependency, dep -> new ArrayList<>()).add(violation);
     }
 
     /**
-     * @return true if package overrides license violations
+     * Checking a dependency, or (if a relation index is given) one of its relations.
      */
-    private boolean checkPackageDefinition(Package pkg, Dependency dependency) {
-        switch (pkg.getAcceptance()) {
-            case NOT_A_PACKAGE:
-                violations.add(new LicenseViolation(dependency, "is not a package"));
-                break;
-            case FORBIDDEN:
-                violations.add(new LicenseViolation(dependency, "is forbidden for use in any project"));
-                break;
-            case PER_PROJECT:
-                if (dependency.getExemption().isEmpty()) {
-                    violations.add(new LicenseViolation(dependency, "requires per-project exemption"));
-                }
-                break;
-            case APPROVED:
-                return true;
-            case DEFAULT:
-            default:
-                // Ignore
+    private static class Step {
+        final Subject subject;
+        final int relation;
+
+        Step(Subject subject, int relation) {
+            this.subject = subject;
+            this.relation = relation;
         }
-        return false;
-    }
 
-    private void checkLicense(Dependency dependency) {
-        final var licenses = dependency.getLicense();
-        if (licenses.isBlank()) {
-            if (!isLicenseExempted(dependency, "")) {
-                violations.add(new LicenseViolation(dependency, "has no license"));
-            }
-        } else if (!isLicenseCompatible(dependency)) {
-            if (licenses.contains(" OR ")) {
-                violations.add(new LicenseViolation(dependency, String.format("has alternative licenses '%s'", licenses)));
+        void merge(LicenseChecker checker) {
+            if (relation < 0) {
+                subject.mergeChecks(checker);
             } else {
-                violations.add(new LicenseViolation(dependency, String.format("has incompatible licenses '%s'", licensesOf(dependency))));
+                subject.mergeRelation(checker, relation);
             }
         }
     }
 
-    private boolean isLicenseCompatible(Dependency dependency) {
-        var licenses = licensesOf(dependency);
+    /**
+     * Progress of visiting the relations of a dependency.
+     */
+    private static class Visit {
+        final Subject subject;
+        int next;
 
-        return (licenses.size() <= 1) || licenses.stream()
-                .anyMatch(lic -> licenses.stream()
-                        .allMatch(l -> l == lic ||
-                                lic.unmetDemands(l, project.getDistribution(), Relation.Relationship.values()[0]).isEmpty()));
+        Visit(Subject subject) {
+            this.subject = subject;
+        }
     }
 
-    private void checkRelation(Dependency dependency, Relation relation) {
-        // Aggregates all accepted demands into a single temporary license
-        final var all = new LicenseType("");
-        licensesOf(dependency).stream()
-                .flatMap(l -> l.accepts().stream())
-                .forEach(all::accept);
-
-        licensesOf(relation.getTarget()).stream()
-                .flatMap(license -> all.unmetDemands(license, project.getDistribution(), relation.getType()).stream())
-                .forEach(term -> {
-                    var message = "depends on incompatible " + term.getDescription()
-                            + " of package " + relation.getTarget();
-                    if (relation.getTarget().getLicense().toLowerCase().contains(" or ")) {
-                        message += " that might require an explicit choice between license alternatives";
-                    }
-                    violations.add(new LicenseViolation(dependency, message));
-                });
-    }
+    /**
+     * Captured state and evaluation results of a dependency.
+     * Evaluation only reads the captured state, and is therefore safe to run concurrently for different subjects.
+     */
+    private static class Subject {
+        final Dependency dependency;
+        final String name;
+        final LicenseExpression expression;
+        final Package.@NullOr Acceptance acceptance;
+        final boolean exempted;
+        final Set<String> exemptedLicenses;
+        final List<Relation> relations;
 
-    private List<LicenseType> licensesOf(Dependency dependency) {
-        return licenseCache.computeIfAbsent(dependency, (dep) ->
-                dep.getLicenses().stream()
-                        .map((s) -> {
-                            try {
-                                return Optional.of(registry.licenseType(s));
-                            } catch (IllegalArgumentException e) {
-                                if (!isLicenseExempted(dependency, s)) {
-                                    violations.add(new LicenseViolation(dependency, String.format("has unknown license '%s'", s)));
-                                }
-                                return Optional.<LicenseType>empty();
+        final List<String> checks = new ArrayList<>();
+        final List<String> unknown = new ArrayList<>();
+        List<LicenseType> licenses = List.of();
+        boolean resolvesLicenses;
+        @NullOr String licenseIssue;
+        List<Subject> targets = List.of();
+        List<List<String>> relationIssues = List.of();
+        boolean reported;
+
+        Subject(Dependency dependency) {
+            this.dependency = dependency;
+            this.name = dependency.toString();
+            this.expression = dependency.getLicenseExpression();
+            this.exempted = dependency.getExemption().isPresent();
+            final @NullOr Package pkg = dependency.getPackage().orElse(null);
+            this.acceptance = (pkg != null) ? pkg.getAcceptance() : null;
+            this.exemptedLicenses = new HashSet<>();
+            if (pkg != null) {
+                Stream.concat(Stream.of(""), expression.getLicenses().stream())
+                        .filter(pkg::isLicenseExempted)
+                        .forEach(exemptedLicenses::add);
+            }
+            this.relations = dependency.getRelations().stream()
+                    .filter(relation -> relation.getType() != Relation.Relationship.IRRELEVANT)
+                    .collect(Collectors.toList());
+        }
+
+        void evaluateLicenses(LicenseRegistry registry, Project.Distribution distribution) {
+            licenses = expression.getLicenses().stream()
+                    .map(license -> {
+                        try {
+                            return Optional.of(registry.licenseType(license));
+                        } catch (IllegalArgumentException e) {
+                            if (!isLicenseExempted(license)) {
+                                unknown.add(String.format("has unknown license '%s'", license));
                             }
-                        })
-                        .flatMap(Optional::stream)
-                        .collect(Collectors.toList()));
-    }
+                            return Optional.<LicenseType>empty();
+                        }
+                    })
+                    .flatMap(Optional::stream)
+                    .collect(Collectors.toList());
+
+            final var override = checkPackage();
+            if (!override) {
+                checkLicense(registry, distribution);
+            }
+        }
+
+        /**
+         * @return true if package overrides license violations
+         */
+        private boolean checkPackage() {
+            if (acceptance == null) {
+                return false;
+            }
+            switch (acceptance) {
+                case NOT_A_PACKAGE:
+                    checks.add("is not a package");
+                    break;
+                case FORBIDDEN:
+                    checks.add("is forbidden for use in any project");
+                    break;
+                case PER_PROJECT:
+                    if (!exempted) {
+                        checks.add("requires per-project exemption");
+                    }
+                    break;
+                case APPROVED:
+                    return true;
+                case DEFAULT:
+                default:
+                    // Ignore
+            }
+            return false;
+        }
+
+        private void checkLicense(LicenseRegistry registry, Project.Distribution distribution) {
+            if (expression.isEmpty()) {
+                if (!isLicenseExempted("")) {
+                    licenseIssue = "has no license";
+                }
+                return;
+            }
+            resolvesLicenses = true;
+            if (!isLicenseCompatible(registry, distribution)) {
+                licenseIssue = expression.hasAlternatives()
+                        ? String.format("has alternative licenses '%s'", expression)
+                        : String.format("has incompatible licenses '%s'", licenses);
+            }
+        }
 
-    private boolean isLicenseExempted(Dependency dependency, String license) {
-        return dependency.getExemption().isPresent() || dependency.getPackage()
-                .filter(pkg -> pkg.isLicenseExempted(license))
-                .isPresent();
+        private boolean isLicenseCompatible(LicenseRegistry registry, Project.Distribution distribution) {
+            return (licenses.size() <= 1) || licenses.stream()
+                    .anyMatch(lic -> licenses.stream()
+                            .allMatch(l -> l == lic ||
+                                    registry.unmetDemands(List.of(lic), l, distribution, Relation.Relationship.weakest()).isEmpty()));
+        }
+
+        void evaluateRelations(LicenseRegistry registry, Map<Dependency, Subject> subjects, Project.Distribution distribution) {
+            targets = relations.stream()
+                    .map(relation -> subjects.get(relation.getTarget()))
+                    .collect(Collectors.toList());
+            relationIssues = new ArrayList<>();
+            for (var i = 0; i < relations.size(); i++) {
+                final var type = relations.get(i).getType();
+                final var target = targets.get(i);
+                relationIssues.add(
+                        target.licenses.stream()
+                                .flatMap(license -> registry.unmetDemands(licenses, license, distribution, type).stream())
+                                .map(term -> {
+                                    var message = "depends on incompatible " + term.getDescription()
+                                            + " of package " + target.name;
+                                    if (target.expression.hasAlternatives()) {
+                                        message += " that might require an explicit choice between license alternatives";
+                                    }
+                                    return message;
+                                })
+                                .collect(Collectors.toList()));
+            }
+        }
+
+        private boolean isLicenseExempted(String license) {
+            return exempted || exemptedLicenses.contains(license);
+        }
+
+        void mergeChecks(LicenseChecker checker) {
+            checks.forEach(message -> checker.violation(dependency, message));
+            if (resolvesLicenses) {
+                mergeUnknown(checker);
+            }
+            if (licenseIssue != null) {
+                checker.violation(dependency, licenseIssue);
+            }
+        }
+
+        void mergeRelation(LicenseChecker checker, int index) {
+            mergeUnknown(checker);
+            targets.get(index).mergeUnknown(checker);
+            relationIssues.get(index).forEach(message -> checker.violation(dependency, message));
+        }
+
+        /**
+         * Reports unknown licenses when the licenses are resolved for the first time.
+         */
+        void mergeUnknown(LicenseChecker checker) {
+            if (!reported) {
+                reported = true;
+                unknown.forEach(message -> checker.violation(dependency, message));
+            }
+        }
     }
 }
@@ -5,17 +5,48 @@
 
 package com.philips.research.bombar.core.domain.licenses;
 
-import java.util.Collection;
-import java.util.HashMap;
-import java.util.Map;
+import com.philips.research.bombar.core.domain.Project.Distribution;
+import com.philips.research.bombar.core.domain.Relation.Relationship;
+import com.philips.research.bombar.core.domain.Sha256;
+import pl.tlinkowski.annotation.basic.NullOr;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.*;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Container to access licenses and their term by name.
+ * The registry is frozen into a precompiled compatibility matrix when it is first used to check licenses.
  */
 public class LicenseRegistry {
+    private static final char UNIT_SEPARATOR = '\u001f';
+    private static final char RECORD_SEPARATOR = '\u001e';
+
     private final Map<String, Term> terms = new HashMap<>();
     private final Map<String, LicenseType> licenses = new HashMap<>();
+    private final List<LicenseType> types = new ArrayList<>();
+    private final MessageDigest fingerprint = Sha256.digest();
+    private @NullOr String version;
+    private volatile @NullOr CompatibilityMatrix matrix;
+
+    /**
+     * The version is a SHA-256 fingerprint of all definitions in the registry, and is
+     * therefore stable across restarts as long as the definitions do not change.
+     *
+     * @return version identification of the registered definitions
+     */
+    public synchronized String getVersion() {
+        if (version == null) {
+            try {
+                version = Sha256.hex(((MessageDigest) fingerprint.clone()).digest());
+            } catch (CloneNotSupportedException e) {
+                throw new IllegalStateException("Cannot calculate the registry version", e);
+            }
+        }
+        return version;
+    }
 
     /**
      * @return collection of all defined terms
@@ -42,6 +73,7 @@ public class LicenseRegistry {
      */
     public Term term(String tag, String description) {
         validateUniqueness(terms, tag);
+        revise("term", tag, description);
         final var attr = new Term(tag, description);
         terms.put(tag.toLowerCase(), attr);
         return attr;
@@ -67,6 +99,7 @@ public class LicenseRegistry {
      * @throws IllegalArgumentException when the license already exists
      */
     public LicenseBuilder license(String license, LicenseBuilder parent) {
+        revise("parent", license, parent.type.getIdentifier());
         final var type = new LicenseType(license, parent.type);
         return newLicenseBuilder(license, type);
     }
@@ -86,10 +119,93 @@ public class LicenseRegistry {
 
     private LicenseBuilder newLicenseBuilder(String license, LicenseType type) {
         validateUniqueness(licenses, license);
-        licenses.put(license.toLowerCase(), type);
+        revise("license", license);
+        licenses.put(license.toLowerCase(), type.setIndex(types.size()));
+        types.add(type);
         return new LicenseBuilder(type);
     }
 
+    /**
+     * Prevents further definitions, and compiles the definitions into a compatibility matrix.
+     * (This happens implicitly when the registry is first used to check licenses.)
+     */
+    public LicenseRegistry freeze() {
+        matrix();
+        return this;
+    }
+
+    /**
+     * @return true if no further definitions are accepted
+     */
+    public boolean isFrozen() {
+        return matrix != null;
+    }
+
+    /**
+     * Determines the demands of a license that are not accepted by a combination of licenses.
+     *
+     * @param sources      (combination of) licenses that must accept the demands
+     * @param target       license that demands terms
+     * @param distribution distribution of the project
+     * @param relationship relationship from the sources to the target
+     * @return all unmet demands
+     */
+    List<Term> unmetDemands(List<LicenseType> sources, LicenseType target, Distribution distribution, Relationship relationship) {
+        final var matrix = matrix();
+        if (sources.isEmpty()) {
+            return matrix.unmetDemands(null, target, distribution, relationship);
+        }
+        var unmet = matrix.unmetDemands(sources.get(0), target, distribution, relationship);
+        for (var i = 1; i < sources.size() && !unmet.isEmpty(); i++) {
+            // A demand is met if any of the source licenses accepts it
+            final var other = matrix.unmetDemands(sources.get(i), target, distribution, relationship);
+            if (other.isEmpty()) {
+                return other;
+            }
+            final var intersection = new ArrayList<>(unmet);
+            intersection.retainAll(other);
+            unmet = intersection;
+        }
+        return unmet;
+    }
+
+    private CompatibilityMatrix matrix() {
+        var result = matrix;
+        if (result == null) {
+            synchronized (this) {
+                result = matrix;
+                if (result == null) {
+                    result = new CompatibilityMatrix(types);
+                    matrix = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Updates the fingerprint with a definition, using only values that are stable across JVM instances.
+     *
+     * @throws IllegalStateException when the registry is frozen
+     */
+    private synchronized void revise(String definition, String... values) {
+        if (matrix != null) {
+            throw new IllegalStateException("The license registry is frozen");
+        }
+        final var record = new StringBuilder(definition);
+        for (var value : values) {
+            record.append(UNIT_SEPARATOR).append(value);
+        }
+        fingerprint.update(record.append(RECORD_SEPARATOR).toString().getBytes(StandardCharsets.UTF_8));
+        version = null;
+    }
+
+    private void revise(String definition, LicenseType type, String value, Enum<?>... guard) {
+        final var values = Stream.concat(Stream.of(type.getIdentifier(), value), Arrays.stream(guard).map(Enum::name))
+                .toArray(String[]::new);
+        revise(definition, values);
+    }
+
     private <T> void validateUniqueness(Map<String, T> map, String key) {
         T value = map.get(key.toLowerCase());
         if (value != null) {
@@ -132,6 +248,7 @@ public class LicenseRegistry {
          * @throws IllegalArgumentException when the term is unknown
          */
         public LicenseBuilder requires(String term, Enum<?>... guard) {
+            revise("requires", type, term, guard);
             type.require(getKnownItem(terms, term), guard);
             return this;
         }
@@ -151,6 +268,7 @@ public class LicenseRegistry {
          * @param guard minimal conditions for weak copyleft
          */
         public LicenseBuilder copyleft(LicenseBuilder license, Enum<?>... guard) {
+            revise("copyleft", type, license.type.getIdentifier(), guard);
             type.demand(Term.from(license.type), guard);
             accepts(license);
             return this;
@@ -163,6 +281,7 @@ public class LicenseRegistry {
          * @param guard minimal condition for the demand
          */
         public LicenseBuilder demands(String term, Enum<?>... guard) {
+            revise("demands", type, term, guard);
             type.demand(getKnownItem(terms, term), guard);
             return this;
         }
@@ -174,6 +293,7 @@ public class LicenseRegistry {
          */
         public LicenseBuilder accepts(LicenseBuilder... licenses) {
             for (var license : licenses) {
+                revise("accepts", type, license.type.getIdentifier());
                 type.accept(Term.from(license.type));
             }
             return this;
@@ -185,6 +305,7 @@ public class LicenseRegistry {
          * @param term tag of the term
          */
         public LicenseBuilder accepts(String term) {
+            revise("accepts", type, term);
             type.accept(getKnownItem(terms, term));
             return this;
         }
@@ -7,21 +7,23 @@ package com.philips.research.bombar.core.domain.licenses;
 
 import pl.tlinkowski.annotation.basic.NullOr;
 
-import java.util.Collection;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.*;
 import java.util.function.Function;
-import java.util.stream.Collectors;
 
 /**
  * License definition.
+ * Sets of terms are evaluated as bit sets of term ids.
  */
 class LicenseType {
     private final String identifier;
+    private final int id = Term.nextId();
     private final @NullOr LicenseType parent;
-    private final Set<Conditional<Term>> requires = new HashSet<>();
-    private final Set<Conditional<Term>> demands = new HashSet<>();
+    private final BitSet ancestry;
+    private final Terms requires = new Terms();
+    private final Terms demands = new Terms();
     private final Set<Term> accepts = new HashSet<>();
+    private final BitSet accepted = new BitSet();
+    private int index = -1;
 
     LicenseType(String identifier) {
         this(identifier, null);
@@ -30,17 +32,45 @@ class LicenseType {
     LicenseType(String identifier, @NullOr LicenseType parent) {
         this.identifier = identifier;
         this.parent = parent;
+        this.ancestry = (parent != null) ? parent.getAncestry() : new BitSet();
+        ancestry.set(id);
     }
 
     String getIdentifier() {
         return identifier;
     }
 
+    /**
+     * @return unique term id of the license
+     */
+    int getId() {
+        return id;
+    }
+
+    /**
+     * @return registration index of the license, or -1 if it is not registered
+     */
+    int getIndex() {
+        return index;
+    }
+
+    LicenseType setIndex(int index) {
+        this.index = index;
+        return this;
+    }
+
+    /**
+     * @return the term ids of this license and all its ancestors
+     */
+    BitSet getAncestry() {
+        return (BitSet) ancestry.clone();
+    }
+
     /**
      * @return true if the given license is an ancestor of this licens.
      */
     boolean hasAncestor(LicenseType license) {
-        return this.equals(license) || (parent != null && parent.hasAncestor(license));
+        return ancestry.get(license.id);
     }
 
     /**
@@ -68,6 +98,7 @@ class LicenseType {
      */
     LicenseType accept(Term term) {
         accepts.add(term);
+        accepted.or(term.coverage());
         return this;
     }
 
@@ -79,9 +110,9 @@ class LicenseType {
      * @return all conflicting terms
      */
     Set<Term> unmetDemands(LicenseType other, Enum<?>... conditions) {
-        final var demands = other.demandsGiven(conditions);
-        demands.removeIf(term -> term.isMatching(accepts()));
-        return demands;
+        final var unmet = other.demandIds(conditions);
+        unmet.andNot(acceptedIds());
+        return other.demandsOf(unmet, conditions);
     }
 
     /**
@@ -89,7 +120,7 @@ class LicenseType {
      * @return all required terms under the given conditions
      */
     Set<Term> requiresGiven(Enum<?>... conditions) {
-        return merged(new HashSet<>(), (type) -> type.requires, conditions);
+        return terms(merged(type -> type.requires, conditions), type -> type.requires, conditions);
     }
 
     /**
@@ -97,21 +128,54 @@ class LicenseType {
      * @return all demands under the given conditions
      */
     Set<Term> demandsGiven(Enum<?>... conditions) {
-        return merged(new HashSet<>(), (type) -> type.demands, conditions);
+        return demandsOf(demandIds(conditions), conditions);
     }
 
-    private Set<Term> merged(Set<Term> result, Function<LicenseType, Set<Conditional<Term>>> set, Enum<?>[] conditions) {
-        if (parent != null) {
-            result.addAll(parent.merged(result, set, conditions));
-        }
-        removeConditionTerms(result, set.apply(this));
-        result.addAll(terms(set.apply(this), conditions));
+    /**
+     * @param conditions the applicable term condition(s)
+     * @return the ids of all demands under the given conditions
+     */
+    BitSet demandIds(Enum<?>... conditions) {
+        return merged(type -> type.demands, conditions);
+    }
+
+    /**
+     * Merges the ids of the applicable terms of the license with the inherited terms,
+     * where terms of the license override all inherited terms they match.
+     */
+    private BitSet merged(Function<LicenseType, Terms> set, Enum<?>[] conditions) {
+        final var result = (parent != null) ? parent.merged(set, conditions) : new BitSet();
+        final var terms = set.apply(this);
+        result.andNot(terms.coverage);
+        result.or(terms.ids(conditions));
         return result;
     }
 
-    private void removeConditionTerms(Set<Term> from, Collection<Conditional<Term>> conditions) {
-        final var terms = conditions.stream().map(Conditional::getValue).collect(Collectors.toList());
-        from.removeIf(t -> t.isMatching(terms));
+    /**
+     * @param ids        term ids of demands
+     * @param conditions the applicable term condition(s)
+     * @return the demanded terms for the ids
+     */
+    Set<Term> demandsOf(BitSet ids, Enum<?>... conditions) {
+        return terms(ids, type -> type.demands, conditions);
+    }
+
+    /**
+     * Maps term ids back to the (nearest) applicable terms that hold them.
+     */
+    private Set<Term> terms(BitSet ids, Function<LicenseType, Terms> set, Enum<?>... conditions) {
+        final var result = new LinkedHashSet<Term>();
+        final var remaining = (BitSet) ids.clone();
+        for (var type = this; type != null && !remaining.isEmpty(); type = type.parent) {
+            for (var conditional : set.apply(type).conditionals) {
+                final var term = conditional.getValue();
+                if (remaining.get(term.getId()) && conditional.get(conditions).isPresent()) {
+                    result.add(term);
+                    remaining.clear(term.getId());
+                }
+            }
+        }
+        return result;
     }
 
     /**
@@ -125,14 +189,40 @@ class LicenseType {
         return result;
     }
 
-    private Set<Term> terms(Set<Conditional<Term>> terms, Enum<?>... conditions) {
-        return terms.stream()
-                .flatMap(attr -> attr.get(conditions).stream())
-                .collect(Collectors.toSet());
+    /**
+     * @return the ids of all accepted terms, including the ancestors of accepted licenses
+     */
+    BitSet acceptedIds() {
+        final var result = (parent != null) ? parent.acceptedIds() : new BitSet();
+        result.or(accepted);
+        return result;
     }
 
     @Override
     public String toString() {
         return identifier;
     }
+
+    /**
+     * Conditional terms with the combined coverage of their values.
+     */
+    private static class Terms {
+        private final List<Conditional<Term>> conditionals = new ArrayList<>();
+        private final BitSet coverage = new BitSet();
+
+        void add(Conditional<Term> conditional) {
+            conditionals.add(conditional);
+            coverage.or(conditional.getValue().coverage());
+        }
+
+        BitSet ids(Enum<?>... conditions) {
+            final var result = new BitSet();
+            for (var conditional : conditionals) {
+                if (conditional.get(conditions).isPresent()) {
+                    result.set(conditional.getValue().getId());
+                }
+            }
+            return result;
+        }
+    }
 }
@@ -206,5 +206,7 @@ public class Licenses {
         REGISTRY.license("MS-PL").requires(REDISTRIBUTE_CODE);
         REGISTRY.license("MS-RL").copyleft()
                 .requires(REDISTRIBUTE_CODE);
+
+        REGISTRY.freeze();
     }
 }
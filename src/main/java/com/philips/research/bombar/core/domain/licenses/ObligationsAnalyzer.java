@@ -35,7 +35,7 @@ public class ObligationsAnalyzer {
         final var distribution = project.getDistribution();
         project.getDependencies().forEach(dep -> {
             final var relationship = dep.getStrongestUsage().orElse(Relation.Relationship.weakest());
-            dep.getLicenses().stream()
+            dep.getLicenseExpression().getLicenses().stream()
                     .flatMap(license -> obligationsFor(license, distribution, relationship).stream())
                     .forEach(obligation -> obligations.compute(obligation, (k, v) -> addToSet(v, dep)));
         });
@@ -5,18 +5,27 @@
 
 package com.philips.research.bombar.core.domain.licenses;
 
+import java.util.BitSet;
 import java.util.Collection;
-import java.util.Objects;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Named license term with a description.
+ * Terms with an equal key share the same (dense) integer id, so term sets can be represented as bit sets.
  */
 final class Term {
+    private static final AtomicInteger COUNTER = new AtomicInteger();
+    private static final Map<Object, Integer> IDS = new ConcurrentHashMap<>();
+
     private final Object key;
+    private final int id;
     private final String description;
 
     Term(Object key, String description) {
         this.key = key;
+        this.id = (key instanceof LicenseType) ? ((LicenseType) key).getId() : IDS.computeIfAbsent(key, k -> nextId());
         this.description = description;
     }
 
@@ -24,31 +33,61 @@ final class Term {
         return new Term(license, "Copyleft license '" + license.getIdentifier() + "'");
     }
 
+    /**
+     * @return a new unique id for a term key
+     */
+    static int nextId() {
+        return COUNTER.getAndIncrement();
+    }
+
     Object getKey() {
         return key;
     }
 
+    int getId() {
+        return id;
+    }
+
     String getDescription() {
         return description;
     }
 
+    /**
+     * @return the ids of all terms that are matched by this term; being the term itself,
+     * or when the key is a license: the license and all its ancestors.
+     */
+    BitSet coverage() {
+        if (key instanceof LicenseType) {
+            return ((LicenseType) key).getAncestry();
+        }
+        final var result = new BitSet();
+        result.set(id);
+        return result;
+    }
+
     /**
      * @return true if term matches the key of any provided term,
      * or when the key is a license: if the license is an ancestor of any term.
      */
     boolean isMatching(Collection<Term> terms) {
-        final var key = getKey();
-        return terms.stream().anyMatch(term -> (key instanceof LicenseType)
-                ? matchesAncestor(terms, (LicenseType) key)
-                : (Objects.equals(getKey(), term.getKey())));
-    }
-
-    private boolean matchesAncestor(Collection<Term> terms, LicenseType license) {
-        return terms.stream()
-                .map(Term::getKey)
-                .filter(k -> k instanceof LicenseType)
-                .map(k -> (LicenseType) k)
-                .anyMatch(l -> l.hasAncestor(license));
+        return isMatching(coverage(terms));
+    }
+
+    /**
+     * @param coverage the combined coverage of terms
+     * @return true if the term is part of the coverage
+     */
+    boolean isMatching(BitSet coverage) {
+        return coverage.get(id);
+    }
+
+    /**
+     * @return the combined coverage of the terms
+     */
+    static BitSet coverage(Collection<Term> terms) {
+        final var result = new BitSet();
+        terms.forEach(term -> result.or(term.coverage()));
+        return result;
     }
 
     @Override
@@ -0,0 +1,246 @@
+/*
+ * Copyright (c) 2020-2021, Koninklijke Philips N.V., https://www.philips.com
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.philips.research.bombar.core.spdx;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.philips.research.bombar.core.BusinessException;
+import pl.tlinkowski.annotation.basic.NullOr;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Streaming reader for SPDX JSON documents.
+ * Translates the JSON document into the equivalent tag-value pairs, without
+ * building the document tree in memory.
+ */
+class SpdxJsonReader {
+    private static final JsonFactory FACTORY = new JsonFactory();
+    private static final Map<String, String> PACKAGE_TAGS = new HashMap<>();
+
+    static {
+        PACKAGE_TAGS.put("SPDXID", "SPDXID");
+        PACKAGE_TAGS.put("versionInfo", "PackageVersion");
+        PACKAGE_TAGS.put("homepage", "PackageHomePage");
+        PACKAGE_TAGS.put("supplier", "PackageSupplier");
+        PACKAGE_TAGS.put("summary", "PackageSummary");
+        PACKAGE_TAGS.put("licenseConcluded", "PackageLicenseConcluded");
+        PACKAGE_TAGS.put("licenseDeclared", "PackageLicenseDeclared");
+    }
+
+    private final BiConsumer<String, String> callback;
+
+    private @NullOr JsonParser parser;
+
+    /**
+     * @param callback Callback for every tag-value equivalent encountered in the stream
+     */
+    SpdxJsonReader(BiConsumer<String, String> callback) {
+        this.callback = callback;
+    }
+
+    void parse(InputStream stream) {
+        try (final var json = FACTORY.createParser(stream)) {
+            parser = json;
+            if (json.nextToken() != JsonToken.START_OBJECT) {
+                throw new SpdxException("Expected a JSON object");
+            }
+            forEachField(this::documentField);
+        } catch (BusinessException e) {
+            throw new SpdxException("Line " + lineNr() + ": " + e.getMessage(), e);
+        } catch (Exception e) {
+            throw new SpdxException("Error reading data from JSON stream", e);
+        } finally {
+            parser = null;
+        }
+    }
+
+    private void documentField(String field) throws IOException {
+        switch (field) {
+            case "name":
+                emit("DocumentName", value());
+                break;
+            case "creationInfo":
+                forEachField(name -> {
+                    if ("created".equals(name)) {
+                        emit("Created", value());
+                    } else {
+                        json().skipChildren();
+                    }
+                });
+                break;
+            case "packages":
+                forEachElement(this::spdxPackage);
+                break;
+            case "relationships":
+                forEachElement(this::relationship);
+                break;
+            case "hasExtractedLicensingInfos":
+                forEachElement(this::extractedLicense);
+                break;
+            default:
+                json().skipChildren();
+        }
+    }
+
+    private void spdxPackage() throws IOException {
+        // Fields can appear in any order, but the package name starts a package
+        final var values = new LinkedHashMap<String, String>();
+        final var externalRefs = new ArrayList<String>();
+        final var name = new String[]{""};
+        forEachField(field -> {
+            if ("name".equals(field)) {
+                name[0] = text();
+            } else if ("externalRefs".equals(field)) {
+                forEachElement(() -> externalRefs.add(externalRef()));
+            } else if (PACKAGE_TAGS.containsKey(field)) {
+                values.put(PACKAGE_TAGS.get(field), text());
+            } else {
+                json().skipChildren();
+            }
+        });
+
+        emit("PackageName", name[0]);
+        values.forEach(this::emit);
+        externalRefs.forEach(ref -> emit("ExternalRef", ref));
+    }
+
+    private String externalRef() throws IOException {
+        final var ref = new String[]{"", "", ""};
+        forEachField(field -> {
+            switch (field) {
+                case "referenceCategory":
+                    ref[0] = text().replace('_', '-');
+                    break;
+                case "referenceType":
+                    ref[1] = text();
+                    break;
+                case "referenceLocator":
+                    ref[2] = text();
+                    break;
+                default:
+                    json().skipChildren();
+            }
+        });
+        return String.join(" ", ref);
+    }
+
+    private void relationship() throws IOException {
+        final var relation = new String[]{"", "", ""};
+        forEachField(field -> {
+            switch (field) {
+                case "spdxElementId":
+                    relation[0] = text();
+                    break;
+                case "relationshipType":
+                    relation[1] = text();
+                    break;
+                case "relatedSpdxElement":
+                    relation[2] = text();
+                    break;
+                default:
+                    json().skipChildren();
+            }
+        });
+        if (!relation[0].isEmpty() && !relation[1].isEmpty() && !relation[2].isEmpty()) {
+            emit("Relationship", String.join(" ", relation));
+        }
+    }
+
+    private void extractedLicense() throws IOException {
+        final var license = new String[]{"", ""};
+        forEachField(field -> {
+            if ("licenseId".equals(field)) {
+                license[0] = text();
+            } else if ("name".equals(field)) {
+                license[1] = text();
+            } else {
+                json().skipChildren();
+            }
+        });
+        if (!license[0].isEmpty()) {
+            emit("LicenseID", license[0]);
+            emit("LicenseName", license[1]);
+        }
+    }
+
+    private void forEachField(FieldHandler handler) throws IOException {
+        final var json = json();
+        if (json.currentToken() != JsonToken.START_OBJECT) {
+            json.skipChildren();
+            return;
+        }
+        while (json.nextToken() == JsonToken.FIELD_NAME) {
+            final var field = json.getCurrentName();
+            json.nextToken();
+            handler.accept(field);
+        }
+    }
+
+    private void forEachElement(ElementHandler handler) throws IOException {
+        final var json = json();
+        if (json.currentToken() != JsonToken.START_ARRAY) {
+            json.skipChildren();
+            return;
+        }
+        JsonToken token;
+        while ((token = json.nextToken()) != JsonToken.END_ARRAY) {
+            if (token == null) {
+                throw new SpdxException("Unexpected end of JSON document");
+            }
+            handler.run();
+        }
+    }
+
+    /**
+     * @return the current scalar value, or null for a structured value
+     */
+    private @NullOr String value() throws IOException {
+        final var json = json();
+        if (json.currentToken().isStructStart()) {
+            json.skipChildren();
+            return null;
+        }
+        return json.getValueAsString();
+    }
+
+    private String text() throws IOException {
+        final var value = value();
+        return (value != null) ? value : "";
+    }
+
+    private void emit(String tag, @NullOr String value) {
+        if (value != null && !value.equals("NOASSERTION")) {
+            callback.accept(tag, value.equals("NONE") ? "" : value);
+        }
+    }
+
+    private JsonParser json() {
+        //noinspection ConstantConditions
+        return parser;
+    }
+
+    private int lineNr() {
+        return (parser != null) ? parser.getCurrentLocation().getLineNr() : 0;
+    }
+
+    @FunctionalInterface
+    private interface FieldHandler {
+        void accept(String field) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface ElementHandler {
+        void run() throws IOException;
+    }
+}
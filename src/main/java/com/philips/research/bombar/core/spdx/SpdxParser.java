@@ -8,14 +8,14 @@ package com.philips.research.bombar.core.spdx;
 import com.github.packageurl.MalformedPackageURLException;
 import com.github.packageurl.PackageURL;
 import com.philips.research.bombar.core.PersistentStore;
-import com.philips.research.bombar.core.domain.Dependency;
-import com.philips.research.bombar.core.domain.PackageRef;
-import com.philips.research.bombar.core.domain.Project;
-import com.philips.research.bombar.core.domain.Relation;
+import com.philips.research.bombar.core.domain.Package;
+import com.philips.research.bombar.core.domain.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import pl.tlinkowski.annotation.basic.NullOr;
 
+import java.io.BufferedInputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
 import java.time.Instant;
@@ -24,6 +24,7 @@ import java.util.regex.Pattern;
 
 public class SpdxParser {
     private static final Logger LOG = LoggerFactory.getLogger(SpdxParser.class);
+    private static final int FORMAT_DETECTION_LIMIT = 1024;
     private static final String SPDX_CONTAINS = "CONTAINS";
     private static final String SPDX_CONTAINED_BY = "CONTAINED_BY";
     private static final String SPDX_DEPENDS_ON = "DEPENDS_ON";
@@ -87,8 +88,9 @@ public class SpdxParser {
     }
 
     private final Project project;
-    private final PersistentStore store;
-    private final Map<String, Dependency> dictionary = new HashMap<>(); // Key is SPDX ID
+    private final Map<String, Dependency> dictionary = new LinkedHashMap<>(); // Key is SPDX ID
+    private final PackageResolver packages;
+    private final ProjectUpdate update;
     private final List<String> relationshipDeclarations = new ArrayList<>();
     private final Map<String, String> customLicenseNames = new HashMap<>(); // Key is custom license ID
     private @NullOr SpdxPackage currentPackage;
@@ -96,16 +98,49 @@ public class SpdxParser {
 
     public SpdxParser(Project project, PersistentStore store) {
         this.project = project;
-        this.store = store;
+        this.packages = new PackageResolver(store);
+        this.update = new ProjectUpdate(project, store);
     }
 
+    /**
+     * Parses an SPDX document in either tag-value or JSON format, as detected from the content.
+     */
     public void parse(InputStream stream) {
-        project.clearDependencies();
         project.setLastUpdate(Instant.now());
-        new TagValueParser(this::tagValue).parse(stream);
+        final var buffered = new BufferedInputStream(stream);
+        if (isJson(buffered)) {
+            new SpdxJsonReader(this::tagValue).parse(buffered);
+        } else {
+            new TagValueParser(this::tagValue).parse(buffered);
+        }
         finish();
     }
 
+    /**
+     * @return true if the first non-whitespace character (after an optional byte order mark) opens a JSON object
+     */
+    private boolean isJson(BufferedInputStream stream) {
+        try {
+            stream.mark(FORMAT_DETECTION_LIMIT);
+            try {
+                for (int i = 0; i < FORMAT_DETECTION_LIMIT; i++) {
+                    final var ch = stream.read();
+                    if (ch < 0 || ch == '{') {
+                        return ch == '{';
+                    }
+                    if (!Character.isWhitespace(ch) && ch != 0xEF && ch != 0xBB && ch != 0xBF) {
+                        return false;
+                    }
+                }
+                return false;
+            } finally {
+                stream.reset();
+            }
+        } catch (IOException e) {
+            throw new SpdxException("Error reading data from SPDX stream", e);
+        }
+    }
+
     private void tagValue(String tag, String value) {
         switch (tag) {
             case "Created":
@@ -205,15 +240,17 @@ public class SpdxParser {
 
     private void finish() {
         mergeCurrent();
-        applyRelationships();
+        packages.resolve();
         applyCustomLicenses();
+        update.merge();
+        dictionary.replaceAll((id, dependency) -> update.merged(dependency));
+        applyRelationships();
         project.postProcess();
     }
 
     private void mergeCurrent() {
         if (currentPackage != null) {
             final var dependency = currentPackage.build();
-            project.addDependency(dependency);
             dictionary.put(dependency.getKey(), dependency);
             currentPackage = null;
         }
@@ -314,30 +351,34 @@ public class SpdxParser {
         }
 
         Dependency build() {
-            final var dependency = store.createDependency(project, spdxId, name);
-            getPurl().stream().peek(dependency::setPurl)
-                    .map(PackageRef::new)
-                    .map(ref -> store.getPackageDefinition(ref)
-                            .orElseGet(() -> store.createPackageDefinition(ref)))
-                    .forEach(dependency::setPackage);
-            dependency.getPackage().ifPresent(pkg -> {
-                if (pkg.getReference().toString().equals(pkg.getName())) {
-                    pkg.setName(name);
-                }
-                if (pkg.getHomepage().isEmpty()) {
-                    pkg.setHomepage(homePage);
-                }
-                if (pkg.getVendor().isEmpty()) {
-                    pkg.setVendor(supplier);
-                }
-                if (pkg.getDescription().isEmpty()) {
-                    pkg.setDescription(summary);
-                }
+            final var dependency = update.stage(spdxId, name);
+            getPurl().ifPresent(purl -> {
+                dependency.setPurl(purl);
+                packages.add(new PackageRef(purl), pkg -> update(dependency, pkg));
             });
             getVersion().ifPresent(dependency::setVersion);
             getLicense().ifPresent(dependency::setLicense);
 
             return dependency;
         }
+
+        /**
+         * Links the dependency to its (resolved) package, and copies missing package information.
+         */
+        private void update(Dependency dependency, Package pkg) {
+            dependency.setPackage(pkg);
+            if (pkg.getReference().toString().equals(pkg.getName())) {
+                pkg.setName(name);
+            }
+            if (pkg.getHomepage().isEmpty()) {
+                pkg.setHomepage(homePage);
+            }
+            if (pkg.getVendor().isEmpty()) {
+                pkg.setVendor(supplier);
+            }
+            if (pkg.getDescription().isEmpty()) {
+                pkg.setDescription(summary);
+            }
+        }
     }
 }
@@ -7,22 +7,38 @@ package com.philips.research.bombar.core.spdx;
 
 import com.philips.research.bombar.core.BusinessException;
 
-import java.io.BufferedReader;
 import java.io.InputStream;
-import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.function.BiConsumer;
 
+/**
+ * Byte-level tokenizer for SPDX tag-value documents.
+ * Lines are scanned directly from the input bytes into reused buffers, so only
+ * the reported tags and values are decoded into strings.
+ */
 class TagValueParser {
-
-    private static final String START_DELIMITER = "<text>";
-    private static final String END_DELIMITER = "</text>";
+    private static final int CHUNK_SIZE = 64 * 1024;
+    private static final int TAG_CACHE_SIZE = 128;
+    private static final byte[] START_DELIMITER = bytes("<text>");
+    private static final byte[] END_DELIMITER = bytes("</text>");
+    private static final byte[] NO_ASSERTION = bytes("NOASSERTION");
+    private static final byte[] NONE = bytes("NONE");
 
     private final BiConsumer<String, String> callback;
+    private final byte[][] tagKeys = new byte[TAG_CACHE_SIZE][];
+    private final String[] tagValues = new String[TAG_CACHE_SIZE];
 
+    private byte[] line = new byte[256];
+    private int lineLength;
+    private byte[] value = new byte[256];
+    private int valueLength;
     private int lineNr;
     private String tag = "";
-    private String value = "";
     private boolean isInText;
+    private boolean skipLineFeed;
 
     /***
      * @param callback Callback for every tag-value encountered in the stream
@@ -31,10 +47,20 @@ class TagValueParser {
         this.callback = callback;
     }
 
+    private static byte[] bytes(String string) {
+        return string.getBytes(StandardCharsets.UTF_8);
+    }
+
     void parse(InputStream stream) {
-        lineNr = 0;
-        try (final var reader = new BufferedReader(new InputStreamReader(stream))) {
-            reader.lines().forEach(this::parse);
+        reset();
+        try (final var channel = Channels.newChannel(stream)) {
+            final var buffer = ByteBuffer.allocate(CHUNK_SIZE);
+            while (channel.read(buffer) >= 0) {
+                buffer.flip();
+                scan(buffer);
+                buffer.clear();
+            }
+            finish();
         } catch (BusinessException e) {
             throw new SpdxException("Line " + lineNr + ": " + e.getMessage(), e);
         } catch (Exception e) {
@@ -42,38 +68,178 @@ class TagValueParser {
         }
     }
 
-    private void parse(String line) {
+    /**
+     * Parses a complete document, like a memory-mapped file.
+     */
+    void parseBuffer(ByteBuffer buffer) {
+        reset();
+        try {
+            scan(buffer);
+            finish();
+        } catch (BusinessException e) {
+            throw new SpdxException("Line " + lineNr + ": " + e.getMessage(), e);
+        }
+    }
+
+    private void reset() {
+        lineNr = 0;
+        lineLength = 0;
+        valueLength = 0;
+        isInText = false;
+        skipLineFeed = false;
+    }
+
+    private void scan(ByteBuffer buffer) {
+        final var limit = buffer.limit();
+        for (int i = buffer.position(); i < limit; i++) {
+            final var b = buffer.get(i);
+            if (b == '\n' && skipLineFeed) {
+                skipLineFeed = false;
+                continue;
+            }
+            skipLineFeed = (b == '\r');
+            if (b == '\n' || b == '\r') {
+                parseLine();
+            } else {
+                if (lineLength == line.length) {
+                    line = Arrays.copyOf(line, 2 * line.length);
+                }
+                line[lineLength++] = b;
+            }
+        }
+        buffer.position(limit);
+    }
+
+    private void finish() {
+        if (lineLength > 0) {
+            parseLine();
+        }
+    }
+
+    private void parseLine() {
         lineNr++;
         if (!isInText) {
-            if (line.isBlank() || line.startsWith("##")) {
+            if (isBlank() || startsWith(line, 0, lineLength, (byte) '#', (byte) '#')) {
+                lineLength = 0;
                 return;
             }
 
-            extractTagAndValue(line);
-            if (value.startsWith(START_DELIMITER)) {
-                value = value.substring(START_DELIMITER.length());
+            final var start = extractTagAndValueStart();
+            valueLength = 0;
+            if (startsWith(line, start, lineLength, START_DELIMITER)) {
+                appendValue(start + START_DELIMITER.length, lineLength);
                 isInText = true;
+            } else {
+                appendValue(start, lineLength);
             }
         } else {
-            value += '\n' + line;
+            appendValue((byte) '\n');
+            appendValue(0, lineLength);
         }
+        lineLength = 0;
 
-        if (value.endsWith(END_DELIMITER)) {
-            value = value.substring(0, value.length() - END_DELIMITER.length());
+        if (endsWith(value, valueLength, END_DELIMITER)) {
+            valueLength -= END_DELIMITER.length;
             isInText = false;
         }
 
-        if (!isInText && !value.equals("NOASSERTION")) {
-            callback.accept(tag, value.equals("NONE") ? "" : value);
+        if (!isInText && !isValue(NO_ASSERTION)) {
+            callback.accept(tag, isValue(NONE) ? "" : new String(value, 0, valueLength, StandardCharsets.UTF_8));
+        }
+    }
+
+    private boolean isBlank() {
+        for (int i = 0; i < lineLength; i++) {
+            if (!isWhitespace(line[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isWhitespace(byte b) {
+        return b >= 0 && b <= ' ';
+    }
+
+    /**
+     * @return start position of the value in the line
+     */
+    private int extractTagAndValueStart() {
+        var pos = 0;
+        while (pos < lineLength && line[pos] != ':') {
+            pos++;
+        }
+        if (pos == lineLength) {
+            throw new SpdxException("Line " + lineNr + " is not in tag-value format: "
+                    + new String(line, 0, lineLength, StandardCharsets.UTF_8));
+        }
+
+        var from = 0;
+        var to = pos;
+        while (from < to && isWhitespace(line[from])) {
+            from++;
         }
+        while (to > from && isWhitespace(line[to - 1])) {
+            to--;
+        }
+        tag = cachedTag(from, to);
+
+        var start = pos + 1;
+        while (start < lineLength && isWhitespace(line[start])) {
+            start++;
+        }
+        return start;
     }
 
-    private void extractTagAndValue(String line) {
-        final var pos = line.indexOf(':');
-        if (pos < 0) {
-            throw new SpdxException("Line " + lineNr + " is not in tag-value format: " + line);
+    /**
+     * Avoids decoding the (limited set of) tag names for every line.
+     */
+    private String cachedTag(int from, int to) {
+        var hash = 0;
+        for (int i = from; i < to; i++) {
+            hash = 31 * hash + line[i];
+        }
+        final var slot = hash & (TAG_CACHE_SIZE - 1);
+        final var key = tagKeys[slot];
+        if (key != null && Arrays.equals(key, 0, key.length, line, from, to)) {
+            return tagValues[slot];
         }
-        tag = line.substring(0, pos).trim();
-        value = line.substring(pos + 1).stripLeading();
+        final var name = new String(line, from, to - from, StandardCharsets.UTF_8);
+        tagKeys[slot] = Arrays.copyOfRange(line, from, to);
+        tagValues[slot] = name;
+        return name;
+    }
+
+    private void appendValue(int from, int to) {
+        final var length = to - from;
+        ensureValueCapacity(length);
+        System.arraycopy(line, from, value, valueLength, length);
+        valueLength += length;
+    }
+
+    private void appendValue(byte b) {
+        ensureValueCapacity(1);
+        value[valueLength++] = b;
+    }
+
+    private void ensureValueCapacity(int extra) {
+        final var required = valueLength + extra;
+        if (required > value.length) {
+            value = Arrays.copyOf(value, Math.max(required, 2 * value.length));
+        }
+    }
+
+    private boolean isValue(byte[] expected) {
+        return Arrays.equals(value, 0, valueLength, expected, 0, expected.length);
+    }
+
+    private static boolean startsWith(byte[] bytes, int from, int to, byte... prefix) {
+        return to - from >= prefix.length
+                && Arrays.equals(bytes, from, from + prefix.length, prefix, 0, prefix.length);
+    }
+
+    private static boolean endsWith(byte[] bytes, int length, byte[] suffix) {
+        return length >= suffix.length
+                && Arrays.equals(bytes, length - suffix.length, length, suffix, 0, suffix.length);
     }
 }
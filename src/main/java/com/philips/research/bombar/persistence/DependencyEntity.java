@@ -20,8 +20,8 @@ class DependencyEntity extends Dependency {
     final Project project;
 
     @Id
-    @GeneratedValue
-    @SuppressWarnings({"unused", "RedundantSuppression"})
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "dependency_ids")
+    @SequenceGenerator(name = "dependency_ids", sequenceName = "hibernate_sequence", allocationSize = PersistentDatabase.ID_ALLOCATION)
     private @NullOr Long id;
 
     @SuppressWarnings("unused")
@@ -34,4 +34,20 @@ class DependencyEntity extends Dependency {
         super(key, title);
         this.project = project;
     }
+
+    DependencyEntity(Project project, Dependency dependency) {
+        this(project, dependency.getKey(), dependency.getTitle());
+        dependency.getPurl().ifPresent(this::setPurl);
+        dependency.getPackage().ifPresent(this::setPackage);
+        setVersion(dependency.getVersion());
+        setLicense(dependency.getLicense());
+    }
+
+    /**
+     * @return database identifier
+     */
+    long getPrimaryKey() {
+        //noinspection ConstantConditions
+        return id;
+    }
 }
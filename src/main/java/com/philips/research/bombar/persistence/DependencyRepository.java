@@ -5,13 +5,53 @@
 
 package com.philips.research.bombar.persistence;
 
+import com.philips.research.bombar.core.domain.DependencySummary;
 import com.philips.research.bombar.core.domain.Package;
+import com.philips.research.bombar.core.domain.Project;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface DependencyRepository extends JpaRepository<DependencyEntity, Long> {
     List<DependencyEntity> findByPkg(Package pkg);
 
-    void deleteByProject(ProjectEntity project);
+    @Query("SELECT DISTINCT d.project FROM DependencyEntity d WHERE d.pkg = ?1")
+    List<ProjectEntity> findProjectsByPkg(Package pkg);
+
+    @Query(value = "SELECT key, CAST(title AS VARCHAR) AS title, CAST(purl AS VARCHAR) AS purl, version,"
+            + " CAST(license AS VARCHAR) AS license, issue_count AS issueCount, is_root AS isRoot,"
+            + " is_development AS isDevelopment, is_delivered AS isDelivered, CAST(exemption AS VARCHAR) AS exemption"
+            + " FROM dependencies WHERE project_id = ?1 ORDER BY LOWER(CAST(title AS VARCHAR)), key", nativeQuery = true)
+    List<DependencySummary> findSummariesByProject(long projectId);
+
+    @Query("SELECT d FROM DependencyEntity d LEFT JOIN FETCH d.pkg WHERE d.project = ?1")
+    List<DependencyEntity> fetchPackagesByProject(Project project);
+
+    @Query("SELECT d FROM DependencyEntity d LEFT JOIN FETCH d.relations WHERE d.project = ?1")
+    List<DependencyEntity> fetchRelationsByProject(Project project);
+
+    @Query("SELECT d FROM DependencyEntity d LEFT JOIN FETCH d.usages WHERE d.project = ?1")
+    List<DependencyEntity> fetchUsagesByProject(Project project);
+
+    @Query("SELECT d FROM DependencyEntity d LEFT JOIN FETCH d.violations WHERE d.project = ?1")
+    List<DependencyEntity> fetchViolationsByProject(Project project);
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = "DELETE FROM dependency_violations WHERE dependency_id IN (?1)", nativeQuery = true)
+    void deleteViolationsByIds(Collection<Long> ids);
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = "DELETE FROM dependency_relations WHERE from_id IN (?1) OR dependency_id IN (?1)", nativeQuery = true)
+    void deleteRelationsByIds(Collection<Long> ids);
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = "DELETE FROM dependency_usages WHERE dependency_id IN (?1) OR usage_id IN (?1)", nativeQuery = true)
+    void deleteUsagesByIds(Collection<Long> ids);
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = "DELETE FROM dependencies WHERE id IN (?1)", nativeQuery = true)
+    void deleteByIds(Collection<Long> ids);
 }
@@ -5,14 +5,31 @@
 
 package com.philips.research.bombar.persistence;
 
-import com.philips.research.bombar.core.domain.PackageRef;
+import com.philips.research.bombar.core.domain.Project;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface PackageDefinitionRepository extends CrudRepository<PackageEntity, Long> {
-    Optional<PackageEntity> findByReference(PackageRef reference);
+    Optional<PackageEntity> findByReferenceHash(String hash);
+
+    List<PackageEntity> findByReferenceHashIn(Collection<String> hashes);
 
     List<PackageEntity> findFirst50BySearchContainingIgnoreCaseOrderByReference(String fragment);
+
+    @Query("SELECT DISTINCT p FROM PackageEntity p LEFT JOIN FETCH p.exemptedLicenses"
+            + " WHERE p IN (SELECT d.pkg FROM DependencyEntity d WHERE d.project = ?1)")
+    List<PackageEntity> fetchExemptionsByProject(Project project);
+
+    @Query(value = "SELECT package_id FROM package_terms WHERE is_prefix = ?1 AND term >= ?2 AND term < ?3"
+            + " GROUP BY package_id ORDER BY MIN(term), package_id LIMIT ?4", nativeQuery = true)
+    List<Long> findIdsByTermRange(boolean prefix, String from, String to, int limit);
+
+    @Query(value = "SELECT t.package_id FROM package_terms t JOIN packages p ON p.id = t.package_id"
+            + " WHERE t.is_prefix = ?1 AND t.term >= ?2 AND t.term < ?3 AND LOWER(p.reference) LIKE ?4 ESCAPE '\\'"
+            + " GROUP BY t.package_id ORDER BY MIN(t.term), t.package_id LIMIT ?5", nativeQuery = true)
+    List<Long> findIdsByTermRangeMatching(boolean prefix, String from, String to, String pattern, int limit);
 }
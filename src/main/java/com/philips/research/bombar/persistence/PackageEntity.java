@@ -7,9 +7,12 @@ package com.philips.research.bombar.persistence;
 
 import com.philips.research.bombar.core.domain.Package;
 import com.philips.research.bombar.core.domain.PackageRef;
+import com.philips.research.bombar.core.domain.Sha256;
 import pl.tlinkowski.annotation.basic.NullOr;
 
 import javax.persistence.*;
+import java.util.HashSet;
+import java.util.Set;
 
 @Entity
 @Access(AccessType.FIELD)
@@ -19,10 +22,23 @@ public class PackageEntity extends Package {
     private static final PackageRef EMPTY_REF = new PackageRef("");
 
     @Id
-    @GeneratedValue
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "package_ids")
+    @SequenceGenerator(name = "package_ids", sequenceName = "hibernate_sequence", allocationSize = PersistentDatabase.ID_ALLOCATION)
     @SuppressWarnings({"unused", "RedundantSuppression"})
     private @NullOr Long id;
 
+    // Used for indexed lookup of the (unbounded) reference
+    @SuppressWarnings({"unused", "FieldCanBeLocal"})
+    @Column(name = "reference_hash", length = 64, nullable = false, unique = true, updatable = false)
+    private String referenceHash;
+
+    // Used for indexed search on (part of) the reference
+    @SuppressWarnings({"unused", "FieldCanBeLocal", "MismatchedQueryAndUpdateOfCollection"})
+    @ElementCollection
+    @CollectionTable(name = "package_terms", joinColumns = @JoinColumn(name = "package_id"),
+            indexes = @Index(name = "idx_package_terms__term", columnList = "is_prefix, term, package_id"))
+    private Set<SearchTerm> terms;
+
     // Used for querying database on string match
     @SuppressWarnings({"unused", "NotNullFieldNotInitialized"})
     @Column(name = "reference", insertable = false, updatable = false)
@@ -31,9 +47,28 @@ public class PackageEntity extends Package {
     @SuppressWarnings("unused")
     PackageEntity() {
         super(EMPTY_REF);
+        referenceHash = "";
+        terms = new HashSet<>();
     }
 
     public PackageEntity(PackageRef reference) {
         super(reference);
+        referenceHash = hash(reference);
+        terms = SearchTerm.of(reference);
+    }
+
+    /**
+     * @return database identifier
+     */
+    long getPrimaryKey() {
+        //noinspection ConstantConditions
+        return id;
+    }
+
+    /**
+     * @return hex encoded SHA-256 hash of the canonical reference
+     */
+    static String hash(PackageRef reference) {
+        return Sha256.of(reference.canonicalize());
     }
 }
@@ -7,21 +7,31 @@ package com.philips.research.bombar.persistence;
 
 import com.philips.research.bombar.core.PersistentStore;
 import com.philips.research.bombar.core.domain.Dependency;
+import com.philips.research.bombar.core.domain.DependencySummary;
 import com.philips.research.bombar.core.domain.Package;
 import com.philips.research.bombar.core.domain.PackageRef;
 import com.philips.research.bombar.core.domain.Project;
 import org.springframework.context.annotation.Primary;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Repository;
 import pl.tlinkowski.annotation.basic.NullOr;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Optional;
-import java.util.UUID;
+import java.time.Instant;
+import java.util.*;
+import java.util.stream.Collectors;
 
 @Repository
 @Primary
 public class PersistentDatabase implements PersistentStore {
+
+    /**
+     * Number of identifiers reserved per database round-trip (requires a matching sequence increment).
+     */
+    static final int ID_ALLOCATION = 50;
+    private static final int MAX_QUERY_PARAMETERS = 500;
+    private static final int MAX_SEARCH_RESULTS = 50;
+    private static final int SEARCH_CANDIDATES = 4 * MAX_SEARCH_RESULTS;
+
     private final ProjectRepository projectRepository;
     private final DependencyRepository dependencyRepository;
     private final PackageDefinitionRepository packageDefinitionRepository;
@@ -34,9 +44,28 @@ public class PersistentDatabase implements PersistentStore {
         this.dependencyRepository = dependencyRepository;
     }
 
+    /**
+     * Pages through the projects using the index on (last update, uuid), so every page takes the same effort.
+     * Projects that were never updated are listed last.
+     */
     @Override
-    public List<Project> findProjects(String fragment) {
-        return new ArrayList<>(projectRepository.findFirst50ByTitleContainingIgnoreCaseOrderByLastUpdateDesc(fragment));
+    public List<Project> findProjects(String fragment, @NullOr Instant lastUpdate, @NullOr UUID after, int limit) {
+        final var pattern = containing(ProjectEntity.normalize(fragment));
+        final var page = PageRequest.of(0, limit);
+        final var ids = new ArrayList<Long>();
+        if (after == null) {
+            ids.addAll(projectRepository.findIdsByTitle(pattern, page));
+        } else if (lastUpdate != null) {
+            ids.addAll(projectRepository.findIdsByTitleAfter(pattern, lastUpdate, after, page));
+            if (ids.size() < limit) {
+                ids.addAll(projectRepository.findIdsByTitleNeverUpdated(pattern, PageRequest.of(0, limit - ids.size())));
+            }
+        } else {
+            ids.addAll(projectRepository.findIdsByTitleNeverUpdatedAfter(pattern, after, page));
+        }
+        final var projects = new HashMap<Long, Project>();
+        projectRepository.findAllById(ids).forEach(project -> projects.put(project.getPrimaryKey(), project));
+        return ids.stream().map(projects::get).collect(Collectors.toList());
     }
 
     @Override
@@ -50,20 +79,111 @@ public class PersistentDatabase implements PersistentStore {
         return projectRepository.findFirstByUuid(projectId).map(p -> p);
     }
 
+    /**
+     * Loads the dependency graph using one query per association, instead of lazily loading the
+     * associations of every dependency. The packages are loaded first, so dependencies refer to
+     * package entities instead of (uninitialized) proxies.
+     */
+    @Override
+    public Optional<Project> getProjectGraph(UUID projectId) {
+        return projectRepository.findFirstByUuid(projectId).map(project -> {
+            dependencyRepository.fetchPackagesByProject(project);
+            packageDefinitionRepository.fetchExemptionsByProject(project);
+            projectRepository.fetchDependencies(project);
+            projectRepository.fetchPackageExemptions(project);
+            dependencyRepository.fetchRelationsByProject(project);
+            dependencyRepository.fetchUsagesByProject(project);
+            dependencyRepository.fetchViolationsByProject(project);
+            return project;
+        });
+    }
+
+    @Override
+    public long countProjects() {
+        return projectRepository.count();
+    }
+
+    @Override
+    public List<UUID> findProjectIds(@NullOr UUID after, int limit) {
+        final var page = PageRequest.of(0, limit);
+        return (after != null) ? projectRepository.findUuidsAfter(after, page) : projectRepository.findUuids(page);
+    }
+
     @Override
     public Package createPackageDefinition(PackageRef reference) {
         final var pkg = new PackageEntity(reference);
         return packageDefinitionRepository.save(pkg);
     }
 
+    @Override
+    public List<Package> createPackageDefinitions(Collection<PackageRef> references) {
+        final var packages = references.stream()
+                .map(PackageEntity::new)
+                .collect(Collectors.toList());
+        final var result = new ArrayList<Package>();
+        packageDefinitionRepository.saveAll(packages).forEach(result::add);
+        return result;
+    }
+
     @Override
     public Optional<Package> getPackageDefinition(PackageRef reference) {
-        return packageDefinitionRepository.findByReference(reference).map(p -> p);
+        return packageDefinitionRepository.findByReferenceHash(PackageEntity.hash(reference))
+                .filter(pkg -> pkg.getReference().equals(reference))
+                .map(p -> p);
+    }
+
+    @Override
+    public List<Package> getPackageDefinitions(Collection<PackageRef> references) {
+        final var result = new ArrayList<Package>();
+        final var wanted = new HashSet<>(references);
+        final var list = wanted.stream().map(PackageEntity::hash).collect(Collectors.toList());
+        for (int i = 0; i < list.size(); i += MAX_QUERY_PARAMETERS) {
+            final var chunk = list.subList(i, Math.min(i + MAX_QUERY_PARAMETERS, list.size()));
+            packageDefinitionRepository.findByReferenceHashIn(chunk).stream()
+                    .filter(pkg -> wanted.contains(pkg.getReference()))
+                    .forEach(result::add);
+        }
+        return result;
     }
 
+    /**
+     * Searches the indexed terms for the longest word of the fragment, ranking packages that have a word
+     * starting with the term before packages that contain the term inside a word.
+     * Fragments without any word fall back to a (full scan) string match.
+     */
     @Override
     public List<Package> findPackageDefinitions(String fragment) {
-        return new ArrayList<>(packageDefinitionRepository.findFirst50BySearchContainingIgnoreCaseOrderByReference(fragment));
+        final var search = fragment.toLowerCase(Locale.ROOT);
+        final var word = SearchTerm.words(search).stream().max(Comparator.comparingInt(String::length));
+        if (word.isEmpty()) {
+            return new ArrayList<>(packageDefinitionRepository.findFirst50BySearchContainingIgnoreCaseOrderByReference(fragment));
+        }
+
+        final var term = SearchTerm.truncate(word.get());
+        final var end = term + Character.MAX_VALUE;
+        final var pattern = containing(search);
+        final var ids = new LinkedHashSet<Long>();
+        for (var prefix : List.of(true, false)) {
+            // Only a fragment that is more than the term needs to be matched against the full reference
+            final var candidates = search.equals(term)
+                    ? packageDefinitionRepository.findIdsByTermRange(prefix, term, end, SEARCH_CANDIDATES)
+                    : packageDefinitionRepository.findIdsByTermRangeMatching(prefix, term, end, pattern, SEARCH_CANDIDATES);
+            ids.addAll(candidates);
+            if (ids.size() >= MAX_SEARCH_RESULTS) {
+                break;
+            }
+        }
+        final var selected = ids.stream().limit(MAX_SEARCH_RESULTS).collect(Collectors.toList());
+        final var packages = new HashMap<Long, Package>();
+        packageDefinitionRepository.findAllById(selected).forEach(pkg -> packages.put(pkg.getPrimaryKey(), pkg));
+        return selected.stream().map(packages::get).collect(Collectors.toList());
+    }
+
+    /**
+     * @return LIKE pattern matching any text containing the fragment
+     */
+    private static String containing(String fragment) {
+        return '%' + fragment.replaceAll("([\\\\%_])", "\\\\$1") + '%';
     }
 
     @Override
@@ -72,6 +192,14 @@ public class PersistentDatabase implements PersistentStore {
         return dependencyRepository.save(dependency);
     }
 
+    @Override
+    public List<Dependency> createDependencies(Project project, Collection<Dependency> dependencies) {
+        // Persisted by cascading from the project, so each dependency is inserted once in its final state
+        return dependencies.stream()
+                .map(dep -> new DependencyEntity(project, dep))
+                .collect(Collectors.toList());
+    }
+
     @Override
     public Project getProjectFor(Dependency dependency) {
         return ((DependencyEntity) dependency).project;
@@ -83,7 +211,31 @@ public class PersistentDatabase implements PersistentStore {
     }
 
     @Override
-    public void deleteDependencies(Project project) {
-        dependencyRepository.deleteByProject((ProjectEntity) project);
+    public List<DependencySummary> findDependencySummaries(Project project) {
+        return dependencyRepository.findSummariesByProject(((ProjectEntity) project).getPrimaryKey());
+    }
+
+    @Override
+    public List<Project> findProjectsUsing(Package pkg) {
+        return new ArrayList<>(dependencyRepository.findProjectsByPkg(pkg));
+    }
+
+    @Override
+    public void deleteDependencies(Collection<Dependency> dependencies) {
+        final var ids = dependencies.stream()
+                .map(dependency -> ((DependencyEntity) dependency).getPrimaryKey())
+                .collect(Collectors.toList());
+        for (int i = 0; i < ids.size(); i += MAX_QUERY_PARAMETERS) {
+            final var chunk = ids.subList(i, Math.min(i + MAX_QUERY_PARAMETERS, ids.size()));
+            dependencyRepository.deleteViolationsByIds(chunk);
+            dependencyRepository.deleteRelationsByIds(chunk);
+            dependencyRepository.deleteUsagesByIds(chunk);
+            dependencyRepository.deleteByIds(chunk);
+        }
+    }
+
+    @Override
+    public void flush() {
+        projectRepository.flush();
     }
 }
@@ -9,6 +9,7 @@ import com.philips.research.bombar.core.domain.Project;
 import pl.tlinkowski.annotation.basic.NullOr;
 
 import javax.persistence.*;
+import java.util.Locale;
 import java.util.UUID;
 
 @Entity
@@ -16,11 +17,19 @@ import java.util.UUID;
 @Table(name = "projects")
 @SuppressWarnings({"JpaDataSourceORMInspection", "JpaObjectClassSignatureInspection"})
 class ProjectEntity extends Project {
+    static final int NORMALIZED_LENGTH = 255;
+
     @Id
-    @GeneratedValue
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "project_ids")
+    @SequenceGenerator(name = "project_ids", sequenceName = "hibernate_sequence", allocationSize = PersistentDatabase.ID_ALLOCATION)
     @SuppressWarnings({"unused", "RedundantSuppression"})
     private @NullOr Long id;
 
+    // Used for listing projects by (part of) the title without reading the title CLOB
+    @SuppressWarnings({"unused", "FieldCanBeLocal"})
+    @Column(name = "normalized_title", length = NORMALIZED_LENGTH, nullable = false)
+    private String normalizedTitle = "";
+
     @SuppressWarnings("unused")
     ProjectEntity() {
         //noinspection ConstantConditions
@@ -30,4 +39,26 @@ class ProjectEntity extends Project {
     ProjectEntity(UUID uuid) {
         super(uuid);
     }
+
+    /**
+     * @return the lowercase (index) value of a title
+     */
+    static String normalize(String title) {
+        final var normalized = title.toLowerCase(Locale.ROOT);
+        return (normalized.length() > NORMALIZED_LENGTH) ? normalized.substring(0, NORMALIZED_LENGTH) : normalized;
+    }
+
+    @Override
+    public Project setTitle(String title) {
+        normalizedTitle = normalize(title);
+        return super.setTitle(title);
+    }
+
+    /**
+     * @return database identifier as referenced by the dependencies
+     */
+    long getPrimaryKey() {
+        //noinspection ConstantConditions
+        return id;
+    }
 }
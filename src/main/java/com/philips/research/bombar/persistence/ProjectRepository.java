@@ -5,8 +5,12 @@
 
 package com.philips.research.bombar.persistence;
 
+import com.philips.research.bombar.core.domain.Project;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -14,5 +18,34 @@ import java.util.UUID;
 public interface ProjectRepository extends JpaRepository<ProjectEntity, Long> {
     Optional<ProjectEntity> findFirstByUuid(UUID projectId);
 
-    List<ProjectEntity> findFirst50ByTitleContainingIgnoreCaseOrderByLastUpdateDesc(String name);
+    @Query("SELECT DISTINCT p FROM ProjectEntity p LEFT JOIN FETCH p.dependencies WHERE p = ?1")
+    List<ProjectEntity> fetchDependencies(Project project);
+
+    @Query("SELECT DISTINCT p FROM ProjectEntity p LEFT JOIN FETCH p.packageExemptions WHERE p = ?1")
+    List<ProjectEntity> fetchPackageExemptions(Project project);
+
+    @Query("SELECT p.id FROM ProjectEntity p WHERE p.normalizedTitle LIKE ?1 ESCAPE '\\'"
+            + " ORDER BY p.lastUpdate DESC, p.uuid DESC")
+    List<Long> findIdsByTitle(String pattern, Pageable page);
+
+    @Query("SELECT p.id FROM ProjectEntity p WHERE p.normalizedTitle LIKE ?1 ESCAPE '\\'"
+            + " AND p.lastUpdate <= ?2 AND (p.lastUpdate < ?2 OR p.uuid < ?3)"
+            + " ORDER BY p.lastUpdate DESC, p.uuid DESC")
+    List<Long> findIdsByTitleAfter(String pattern, Instant lastUpdate, UUID uuid, Pageable page);
+
+    @Query("SELECT p.id FROM ProjectEntity p WHERE p.normalizedTitle LIKE ?1 ESCAPE '\\'"
+            + " AND p.lastUpdate IS NULL"
+            + " ORDER BY p.uuid DESC")
+    List<Long> findIdsByTitleNeverUpdated(String pattern, Pageable page);
+
+    @Query("SELECT p.id FROM ProjectEntity p WHERE p.normalizedTitle LIKE ?1 ESCAPE '\\'"
+            + " AND p.lastUpdate IS NULL AND p.uuid < ?2"
+            + " ORDER BY p.uuid DESC")
+    List<Long> findIdsByTitleNeverUpdatedAfter(String pattern, UUID uuid, Pageable page);
+
+    @Query("SELECT p.uuid FROM ProjectEntity p ORDER BY p.uuid")
+    List<UUID> findUuids(Pageable page);
+
+    @Query("SELECT p.uuid FROM ProjectEntity p WHERE p.uuid > ?1 ORDER BY p.uuid")
+    List<UUID> findUuidsAfter(UUID after, Pageable page);
 }
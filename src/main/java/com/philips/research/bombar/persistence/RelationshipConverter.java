@@ -6,6 +6,7 @@
 package com.philips.research.bombar.persistence;
 
 import com.philips.research.bombar.core.domain.Relation.Relationship;
+import pl.tlinkowski.annotation.basic.NullOr;
 
 import javax.persistence.AttributeConverter;
 import javax.persistence.Converter;
@@ -20,7 +21,10 @@ class RelationshipConverter implements AttributeConverter<Relationship, Characte
     private static final char MODIFIED_CODE = 'M';
 
     @Override
-    public Character convertToDatabaseColumn(Relationship relationship) {
+    public @NullOr Character convertToDatabaseColumn(@NullOr Relationship relationship) {
+        if (relationship == null) {
+            return null;
+        }
         switch (relationship) {
             case IRRELEVANT:
                 return IRRELEVANT;
@@ -38,7 +42,10 @@ class RelationshipConverter implements AttributeConverter<Relationship, Characte
     }
 
     @Override
-    public Relationship convertToEntityAttribute(Character character) {
+    public @NullOr Relationship convertToEntityAttribute(@NullOr Character character) {
+        if (character == null) {
+            return null;
+        }
         switch (character) {
             case IRRELEVANT:
                 return Relationship.IRRELEVANT;
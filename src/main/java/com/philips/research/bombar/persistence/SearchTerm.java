@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2020-2021, Koninklijke Philips N.V., https://www.philips.com
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.philips.research.bombar.persistence;
+
+import com.philips.research.bombar.core.domain.PackageRef;
+import pl.tlinkowski.annotation.basic.NullOr;
+
+import javax.persistence.Access;
+import javax.persistence.AccessType;
+import javax.persistence.Column;
+import javax.persistence.Embeddable;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Indexed term for searching package references.
+ * <p>
+ * The lowercase reference is split into alphanumeric words, and every suffix of every word is stored as a term.
+ * This turns a search on any part of a word into a range lookup on the index of the terms, where terms that
+ * start a word ("prefix" terms) rank before terms that start inside a word.
+ * </p>
+ */
+@Embeddable
+@Access(AccessType.FIELD)
+@SuppressWarnings("JpaDataSourceORMInspection")
+public class SearchTerm {
+    static final int MAX_LENGTH = 64;
+
+    @Column(name = "term", length = MAX_LENGTH, nullable = false)
+    private final String term;
+    @Column(name = "is_prefix", nullable = false)
+    private final boolean prefix;
+
+    @SuppressWarnings("unused")
+    SearchTerm() {
+        this("", false);
+    }
+
+    SearchTerm(String term, boolean prefix) {
+        this.term = term;
+        this.prefix = prefix;
+    }
+
+    /**
+     * @return all search terms for the reference
+     */
+    public static Set<SearchTerm> of(PackageRef reference) {
+        final var terms = new HashSet<SearchTerm>();
+        for (var word : words(reference.canonicalize())) {
+            for (var i = 0; i < word.length(); i++) {
+                terms.add(new SearchTerm(truncate(word.substring(i)), i == 0));
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * @return the distinct lowercase alphanumeric words of the text
+     */
+    static List<String> words(String text) {
+        return Arrays.stream(text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"))
+                .filter(word -> !word.isEmpty())
+                .distinct()
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * @return the (index) value of a term
+     */
+    static String truncate(String term) {
+        return (term.length() > MAX_LENGTH) ? term.substring(0, MAX_LENGTH) : term;
+    }
+
+    public String getTerm() {
+        return term;
+    }
+
+    public boolean isPrefix() {
+        return prefix;
+    }
+
+    @Override
+    public final boolean equals(@NullOr Object o) {
+        if (this == o) return true;
+        if (!(o instanceof SearchTerm)) return false;
+        SearchTerm that = (SearchTerm) o;
+        return prefix == that.prefix && term.equals(that.term);
+    }
+
+    @Override
+    public final int hashCode() {
+        return Objects.hash(term, prefix);
+    }
+
+    @Override
+    public String toString() {
+        return term + (prefix ? "*" : "");
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2020-2021, Koninklijke Philips N.V., https://www.philips.com
+ * SPDX-License-Identifier: MIT
+ */
+
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.util.*;
+
+/**
+ * Populates the search terms of all existing packages.
+ * (Implemented in Java, because every suffix of every word in a reference is a term. The splitting into words
+ * is a copy of the tokenizer at the time of this migration, so later changes to the application do not change
+ * the outcome of this migration.)
+ */
+@SuppressWarnings("unused")
+public class V17__Populate_package_search_terms extends BaseJavaMigration {
+    private static final int BATCH_SIZE = 1000;
+    private static final int MAX_TERM_LENGTH = 64;
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        final var connection = context.getConnection();
+        try (var select = connection.createStatement();
+             var insert = connection.prepareStatement("INSERT INTO package_terms (package_id, term, is_prefix) VALUES (?, ?, ?)");
+             var packages = select.executeQuery("SELECT id, reference FROM packages")) {
+            var count = 0;
+            while (packages.next()) {
+                final var id = packages.getLong(1);
+                for (var term : terms(packages.getString(2))) {
+                    insert.setLong(1, id);
+                    insert.setString(2, term.getKey());
+                    insert.setBoolean(3, term.getValue());
+                    insert.addBatch();
+                    if (++count % BATCH_SIZE == 0) {
+                        insert.executeBatch();
+                    }
+                }
+            }
+            insert.executeBatch();
+        }
+    }
+
+    /**
+     * @return distinct (truncated) suffixes of all alphanumeric words of the lowercase reference, with a flag
+     * indicating if the term starts a word
+     */
+    private static Set<Map.Entry<String, Boolean>> terms(String reference) {
+        final var terms = new HashSet<Map.Entry<String, Boolean>>();
+        for (var word : reference.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            for (var i = 0; i < word.length(); i++) {
+                final var suffix = word.substring(i);
+                final var term = (suffix.length() > MAX_TERM_LENGTH) ? suffix.substring(0, MAX_TERM_LENGTH) : suffix;
+                terms.add(Map.entry(term, i == 0));
+            }
+        }
+        return terms;
+    }
+}
@@ -0,0 +1,22 @@
+/*
+ * Copyright (c) 2020-2021, Koninklijke Philips N.V., https://www.philips.com
+ * SPDX-License-Identifier: MIT
+ */
+
+-- noinspection SqlNoDataSourceInspectionForFile
+-- noinspection SqlResolveForFile
+
+CREATE TABLE dependency_violations
+(
+    dependency_id BIGINT  NOT NULL,
+    position      INTEGER NOT NULL,
+    message       CLOB    NOT NULL
+);
+ALTER TABLE dependency_violations
+    ADD CONSTRAINT pk_dependency_violations PRIMARY KEY (dependency_id, position);
+ALTER TABLE dependency_violations
+    ADD CONSTRAINT fk_dependency_violations__dependency_id FOREIGN KEY (dependency_id) REFERENCES dependencies (id) NOCHECK;
+
+-- Forces a license check to populate the violations
+UPDATE projects
+SET registry_version = NULL;
@@ -0,0 +1,22 @@
+/*
+ * Copyright (c) 2020-2021, Koninklijke Philips N.V., https://www.philips.com
+ * SPDX-License-Identifier: MIT
+ */
+
+-- noinspection SqlNoDataSourceInspectionForFile
+-- noinspection SqlResolveForFile
+
+ALTER TABLE dependencies
+    ADD COLUMN strongest_usage CHAR(1);
+
+UPDATE dependencies AS d
+SET strongest_usage = (SELECT r.type
+                       FROM dependency_relations AS r
+                       WHERE r.dependency_id = d.id
+                       ORDER BY CASE r.type
+                                    WHEN '-' THEN 0
+                                    WHEN 'I' THEN 1
+                                    WHEN 'D' THEN 2
+                                    WHEN 'S' THEN 3
+                                    WHEN 'M' THEN 4 END DESC
+                       LIMIT 1);
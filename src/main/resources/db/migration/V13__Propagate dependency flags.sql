@@ -0,0 +1,11 @@
+/*
+ * Copyright (c) 2020-2021, Koninklijke Philips N.V., https://www.philips.com
+ * SPDX-License-Identifier: MIT
+ */
+
+-- noinspection SqlNoDataSourceInspectionForFile
+-- noinspection SqlResolveForFile
+
+-- Forces a license check to propagate the development and delivery flags through all relations
+UPDATE projects
+SET registry_version = NULL;
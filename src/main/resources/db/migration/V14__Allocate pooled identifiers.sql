@@ -0,0 +1,10 @@
+/*
+ * Copyright (c) 2020-2021, Koninklijke Philips N.V., https://www.philips.com
+ * SPDX-License-Identifier: MIT
+ */
+
+-- noinspection SqlNoDataSourceInspectionForFile
+-- noinspection SqlResolveForFile
+
+-- Reserves a block of identifiers per call, starting from the current value (using the "pooled-lo" optimizer)
+ALTER SEQUENCE hibernate_sequence INCREMENT BY 50;
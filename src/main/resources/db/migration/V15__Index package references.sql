@@ -0,0 +1,31 @@
+/*
+ * Copyright (c) 2020-2021, Koninklijke Philips N.V., https://www.philips.com
+ * SPDX-License-Identifier: MIT
+ */
+
+-- noinspection SqlNoDataSourceInspectionForFile
+-- noinspection SqlResolveForFile
+
+-- Hex encoded SHA-256 hash of the (CLOB) reference, as calculated by PackageEntity
+ALTER TABLE packages
+    ADD COLUMN reference_hash VARCHAR(64);
+UPDATE packages
+SET reference_hash = RAWTOHEX(HASH('SHA256', STRINGTOUTF8(reference), 1));
+
+-- Merges duplicate package definitions into the oldest definition
+UPDATE dependencies AS d
+SET package_id = (SELECT MIN(other.id)
+                  FROM packages AS pkg
+                           JOIN packages AS other ON other.reference_hash = pkg.reference_hash
+                  WHERE pkg.id = d.package_id)
+WHERE package_id IS NOT NULL;
+DELETE
+FROM exempted_licenses
+WHERE package_id NOT IN (SELECT MIN(id) FROM packages GROUP BY reference_hash);
+DELETE
+FROM packages
+WHERE id NOT IN (SELECT MIN(id) FROM packages GROUP BY reference_hash);
+
+ALTER TABLE packages
+    ALTER COLUMN reference_hash SET NOT NULL;
+CREATE UNIQUE INDEX idx_packages__reference_hash ON packages (reference_hash);
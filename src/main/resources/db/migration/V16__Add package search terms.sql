@@ -0,0 +1,19 @@
+/*
+ * Copyright (c) 2020-2021, Koninklijke Philips N.V., https://www.philips.com
+ * SPDX-License-Identifier: MIT
+ */
+
+-- noinspection SqlNoDataSourceInspectionForFile
+-- noinspection SqlResolveForFile
+
+CREATE TABLE package_terms
+(
+    package_id BIGINT      NOT NULL,
+    term       VARCHAR(64) NOT NULL,
+    is_prefix  BOOLEAN     NOT NULL
+);
+ALTER TABLE package_terms
+    ADD CONSTRAINT pk_package_terms PRIMARY KEY (package_id, term, is_prefix);
+ALTER TABLE package_terms
+    ADD CONSTRAINT fk_package_terms__package_id FOREIGN KEY (package_id) REFERENCES packages (id) NOCHECK;
+CREATE INDEX idx_package_terms__term ON package_terms (is_prefix, term, package_id);
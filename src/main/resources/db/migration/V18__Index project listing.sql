@@ -0,0 +1,13 @@
+/*
+ * Copyright (c) 2020-2021, Koninklijke Philips N.V., https://www.philips.com
+ * SPDX-License-Identifier: MIT
+ */
+
+-- noinspection SqlNoDataSourceInspectionForFile
+-- noinspection SqlResolveForFile
+
+ALTER TABLE projects
+    ADD COLUMN normalized_title VARCHAR(255) DEFAULT '' NOT NULL;
+UPDATE projects
+SET normalized_title = LOWER(LEFT(title, 255));
+CREATE INDEX idx_projects__last_update ON projects (last_update DESC, id DESC, normalized_title);
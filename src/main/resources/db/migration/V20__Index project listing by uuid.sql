@@ -0,0 +1,10 @@
+/*
+ * Copyright (c) 2020-2021, Koninklijke Philips N.V., https://www.philips.com
+ * SPDX-License-Identifier: MIT
+ */
+
+-- noinspection SqlNoDataSourceInspectionForFile
+-- noinspection SqlResolveForFile
+
+DROP INDEX idx_projects__last_update;
+CREATE INDEX idx_projects__last_update ON projects (last_update DESC, uuid DESC, normalized_title);
@@ -0,0 +1,13 @@
+/*
+ * Copyright (c) 2020-2021, Koninklijke Philips N.V., https://www.philips.com
+ * SPDX-License-Identifier: MIT
+ */
+
+-- noinspection SqlNoDataSourceInspectionForFile
+-- noinspection SqlResolveForFile
+
+ALTER TABLE projects
+    ADD COLUMN source_hash VARCHAR(64);
+
+ALTER TABLE projects
+    ADD COLUMN registry_version VARCHAR(16);
@@ -5,6 +5,7 @@
 
 package com.philips.research.bombar.controller;
 
+import com.philips.research.bombar.core.BusyException;
 import com.philips.research.bombar.core.NotFoundException;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -51,6 +52,15 @@ class ControllerExceptionHandlerTest {
                 .andExpect(jsonPath("$.reason").exists());
     }
 
+    @Test
+    void handlesBusy() throws Exception {
+        doThrow(new BusyException("Busy")).when(resource).test(anyInt());
+
+        mockMvc.perform(get(TEST_URL, 13))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.reason").value("Busy"));
+    }
+
     @RestController
     static class TestResource {
         @GetMapping(TEST_URL)
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2020-2021, Koninklijke Philips N.V., https://www.philips.com
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.philips.research.bombar.controller;
+
+import com.philips.research.bombar.core.EvaluationService;
+import com.philips.research.bombar.core.EvaluationService.EvaluationDto;
+import com.philips.research.bombar.core.NotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.UUID;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(controllers = {EvaluationsRoute.class, JacksonConfiguration.class})
+@AutoConfigureMockMvc
+@ExtendWith({SpringExtension.class, MockitoExtension.class})
+class EvaluationsRouteTest {
+    private static final UUID EVALUATION_ID = UUID.randomUUID();
+    private static final String BASE_URL = "/evaluations";
+    private static final String EVALUATION_URL = BASE_URL + "/{evaluationId}";
+
+    @MockBean
+    private EvaluationService service;
+
+    @Autowired
+    private MockMvc mvc;
+
+    @BeforeEach
+    void beforeEach() {
+        Mockito.reset(service);
+    }
+
+    @Test
+    void startsEvaluation() throws Exception {
+        when(service.startEvaluation()).thenReturn(new EvaluationDto(EVALUATION_ID));
+
+        mvc.perform(post(BASE_URL))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/evaluations/" + EVALUATION_ID))
+                .andExpect(jsonPath("$.id").value(EVALUATION_ID.toString()));
+    }
+
+    @Test
+    void readsEvaluationStatus() throws Exception {
+        final var dto = new EvaluationDto(EVALUATION_ID);
+        dto.phase = "running";
+        dto.projects = 3000;
+        dto.processed = 1200;
+        dto.checked = 1100;
+        dto.failed = 2;
+        dto.throughput = 42.5;
+        when(service.findEvaluation(EVALUATION_ID)).thenReturn(dto);
+
+        mvc.perform(get(EVALUATION_URL, EVALUATION_ID))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.phase").value("running"))
+                .andExpect(jsonPath("$.projects").value(3000))
+                .andExpect(jsonPath("$.processed").value(1200))
+                .andExpect(jsonPath("$.checked").value(1100))
+                .andExpect(jsonPath("$.failed").value(2))
+                .andExpect(jsonPath("$.throughput").value(42.5));
+    }
+
+    @Test
+    void notFound_unknownEvaluation() throws Exception {
+        when(service.findEvaluation(EVALUATION_ID)).thenThrow(new NotFoundException("evaluation", EVALUATION_ID));
+
+        mvc.perform(get(EVALUATION_URL, EVALUATION_ID))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2020-2021, Koninklijke Philips N.V., https://www.philips.com
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.philips.research.bombar.controller;
+
+import com.philips.research.bombar.core.ImportService;
+import com.philips.research.bombar.core.ImportService.ImportDto;
+import com.philips.research.bombar.core.NotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.UUID;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = {ImportsRoute.class, JacksonConfiguration.class})
+@AutoConfigureMockMvc
+@ExtendWith({SpringExtension.class, MockitoExtension.class})
+class ImportsRouteTest {
+    private static final UUID JOB_ID = UUID.randomUUID();
+    private static final UUID PROJECT_ID = UUID.randomUUID();
+    private static final String IMPORT_URL = "/imports/{jobId}";
+
+    @MockBean
+    private ImportService service;
+
+    @Autowired
+    private MockMvc mvc;
+
+    @BeforeEach
+    void beforeEach() {
+        Mockito.reset(service);
+    }
+
+    @Test
+    void readsImportStatus() throws Exception {
+        final var dto = new ImportDto(JOB_ID, PROJECT_ID);
+        dto.phase = "failed";
+        dto.dependencies = 42;
+        dto.violations = 7;
+        dto.error = "Error";
+        when(service.findImport(JOB_ID)).thenReturn(dto);
+
+        mvc.perform(get(IMPORT_URL, JOB_ID))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(JOB_ID.toString()))
+                .andExpect(jsonPath("$.project").value(PROJECT_ID.toString()))
+                .andExpect(jsonPath("$.phase").value("failed"))
+                .andExpect(jsonPath("$.dependencies").value(42))
+                .andExpect(jsonPath("$.violations").value(7))
+                .andExpect(jsonPath("$.error").value("Error"));
+    }
+
+    @Test
+    void notFound_unknownImport() throws Exception {
+        when(service.findImport(JOB_ID)).thenThrow(new NotFoundException("import", JOB_ID));
+
+        mvc.perform(get(IMPORT_URL, JOB_ID))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -5,6 +5,7 @@
 
 package com.philips.research.bombar.controller;
 
+import com.philips.research.bombar.core.ImportService;
 import com.philips.research.bombar.core.ProjectService;
 import com.philips.research.bombar.core.ProjectService.ProjectDto;
 import org.json.JSONObject;
@@ -24,6 +25,7 @@ import org.springframework.test.web.servlet.MockMvc;
 
 import java.io.InputStream;
 import java.net.URI;
+import java.time.Instant;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -47,6 +49,7 @@ class ProjectsRouteTest {
     private static final String RATIONALE = "Rationale";
     private static final String BASE_URL = "/projects";
     private static final String SEARCH_URL = "/projects?q={fragment}&limit={limit}";
+    private static final String PAGE_URL = "/projects?q={fragment}&after={after}&limit={limit}";
     private static final String PROJECT_URL = BASE_URL + "/{projectId}";
     private static final String UPLOAD_SPDX_URL = PROJECT_URL + "/upload";
     private static final String DEPENDENCIES_URL = PROJECT_URL + "/dependencies";
@@ -58,19 +61,21 @@ class ProjectsRouteTest {
 
     @MockBean
     private ProjectService service;
+    @MockBean
+    private ImportService importService;
 
     @Autowired
     private MockMvc mvc;
 
     @BeforeEach
     public void beforeEach() {
-        Mockito.reset(service);
+        Mockito.reset(service, importService);
     }
 
     @Test
     void getsAllProjects() throws Exception {
         var dto = new ProjectDto(PROJECT_ID);
-        when(service.findProjects(anyString(), anyInt())).thenReturn(List.of(dto));
+        when(service.findProjects(anyString(), any(), anyInt())).thenReturn(List.of(dto));
 
         mvc.perform(get(BASE_URL))
                 .andExpect(status().isOk())
@@ -80,13 +85,52 @@ class ProjectsRouteTest {
     @Test
     void searchesForProjectsByName() throws Exception {
         var dto = new ProjectDto(PROJECT_ID);
-        when(service.findProjects(NAME, 2)).thenReturn(List.of(dto));
+        when(service.findProjects(NAME, null, 2)).thenReturn(List.of(dto));
 
         mvc.perform(get(SEARCH_URL, NAME, 2))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.results.length()").value(1));
     }
 
+    @Test
+    void pagesThroughProjects() throws Exception {
+        final var last = new ProjectDto(UUID.randomUUID());
+        last.updated = Instant.now();
+        final var dto = new ProjectDto(PROJECT_ID);
+        when(service.findProjects(NAME, null, 1)).thenReturn(List.of(last));
+        when(service.findProjects(eq(NAME), argThat(after -> after != null
+                && last.updated.equals(after.updated) && last.id.equals(after.id)), eq(2))).thenReturn(List.of(dto));
+
+        final var json = mvc.perform(get(SEARCH_URL, NAME, 1))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        final var cursor = new JSONObject(json).getJSONArray("results").getJSONObject(0).getString("cursor");
+        mvc.perform(get(PAGE_URL, NAME, cursor, 2))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results[0].id").value(PROJECT_ID.toString()));
+    }
+
+    @Test
+    void pagesThroughProjectsAfterNeverUpdatedProject() throws Exception {
+        final var last = new ProjectDto(UUID.randomUUID());
+        when(service.findProjects(NAME, null, 1)).thenReturn(List.of(last));
+
+        final var json = mvc.perform(get(SEARCH_URL, NAME, 1))
+                .andReturn().getResponse().getContentAsString();
+        final var cursor = new JSONObject(json).getJSONArray("results").getJSONObject(0).getString("cursor");
+        mvc.perform(get(PAGE_URL, NAME, cursor, 2))
+                .andExpect(status().isOk());
+
+        verify(service).findProjects(eq(NAME), argThat(after -> after != null
+                && after.updated == null && last.id.equals(after.id)), eq(2));
+    }
+
+    @Test
+    void throws_pageAfterInvalidCursor() throws Exception {
+        mvc.perform(get(PAGE_URL, NAME, "not-a-cursor", 2))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void createsNewProject() throws Exception {
         final var json = new JSONObject().put("title", NAME).toString();
@@ -131,11 +175,16 @@ class ProjectsRouteTest {
     void uploadsSpdxFile() throws Exception {
         // Filename necessary due to Spring bug: https://github.com/spring-projects/spring-framework/issues/26261
         final var file = new MockMultipartFile("file", "Filename", MediaType.TEXT_PLAIN_VALUE, "Data".getBytes());
+        final var jobId = UUID.randomUUID();
+        final var dto = new ImportService.ImportDto(jobId, PROJECT_ID);
+        dto.phase = "queued";
+        when(importService.startImport(eq(PROJECT_ID), any(InputStream.class))).thenReturn(dto);
 
         mvc.perform(multipart(UPLOAD_SPDX_URL, PROJECT_ID).file(file))
-                .andExpect(status().isOk());
-
-        verify(service).importSpdx(eq(PROJECT_ID), any(InputStream.class));
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/imports/" + jobId))
+                .andExpect(jsonPath("$.id").value(jobId.toString()))
+                .andExpect(jsonPath("$.phase").value("queued"));
     }
 
     @Test
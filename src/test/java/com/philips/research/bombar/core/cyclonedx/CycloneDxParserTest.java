@@ -0,0 +1,232 @@
+/*
+ * Copyright (c) 2020-2021, Koninklijke Philips N.V., https://www.philips.com
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.philips.research.bombar.core.cyclonedx;
+
+import com.philips.research.bombar.core.PersistentStore;
+import com.philips.research.bombar.core.domain.Package;
+import com.philips.research.bombar.core.domain.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CycloneDxParserTest {
+    private static final UUID PROJECT_ID = UUID.randomUUID();
+    private static final String TITLE = "Title";
+    private static final String TIMESTAMP = "2020-09-07T06:39:00Z";
+    private static final PackageRef REFERENCE = new PackageRef("maven/some/package");
+    private static final String PURL = "pkg:maven/some/package@1.2.3";
+    private static final String NESTED_PURL = "pkg:maven/some/nested@2.0";
+    private static final String TOOL_PURL = "pkg:maven/some/tool@3.0";
+
+    private final Project project = new Project(PROJECT_ID);
+    private final PersistentStore store = mock(PersistentStore.class);
+    private final CycloneDxParser parser = new CycloneDxParser(project, store);
+    private final Package pkg = new Package(REFERENCE);
+
+    @BeforeEach
+    void beforeEach() {
+        when(store.getPackageDefinitions(any())).thenReturn(List.of());
+        when(store.createPackageDefinitions(any())).thenAnswer(a -> {
+            final Collection<PackageRef> refs = a.getArgument(0);
+            return refs.stream()
+                    .map(ref -> ref.equals(REFERENCE) ? pkg : new Package(ref))
+                    .collect(Collectors.toList());
+        });
+        when(store.createDependencies(eq(project), any())).thenAnswer(
+                (a) -> new ArrayList<>(a.<Collection<Dependency>>getArgument(1)));
+    }
+
+    private static InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void assertImportedDocument() {
+        assertThat(project.getTitle()).isEqualTo(TITLE);
+        assertThat(project.getLastUpdate()).contains(Instant.parse(TIMESTAMP));
+        assertThat(project.getDependencies()).hasSize(4);
+
+        final var dependency = project.getDependency(PURL).orElseThrow();
+        assertThat(dependency.getTitle()).isEqualTo("Some package");
+        assertThat(dependency.getVersion()).isEqualTo("1.2.3");
+        assertThat(dependency.getLicense()).isEqualTo("MIT");
+        assertThat(dependency.getPackage()).contains(pkg);
+        assertThat(pkg.getName()).isEqualTo("Some package");
+        assertThat(pkg.getVendor()).contains("Collector");
+        assertThat(pkg.getDescription()).contains("Package summary");
+        assertThat(pkg.getHomepage()).contains(URI.create("https://example.com/package"));
+
+        final var nested = project.getDependency(NESTED_PURL).orElseThrow();
+        assertThat(nested.getVersion()).isEqualTo("2.0");
+        assertThat(nested.getLicense()).isEqualTo("Apache-2.0 OR MIT");
+        assertThat(nested.getUsages()).containsExactly(dependency);
+        assertThat(nested.getStrongestUsage()).contains(Relation.Relationship.INDEPENDENT);
+
+        final var tool = project.getDependency(TOOL_PURL).orElseThrow();
+        assertThat(tool.getUsages()).containsExactly(dependency);
+        assertThat(tool.getStrongestUsage()).contains(Relation.Relationship.IRRELEVANT);
+        assertThat(tool.isDevelopment()).isTrue();
+        assertThat(dependency.isRoot()).isTrue();
+    }
+
+    @Test
+    void detectsCycloneDxDocuments() {
+        assertThat(CycloneDxParser.isCycloneDx(new BufferedInputStream(stream("{\"bomFormat\" : \"CycloneDX\"}")))).isTrue();
+        assertThat(CycloneDxParser.isCycloneDx(new BufferedInputStream(stream("<bom xmlns=\"http://cyclonedx.org/schema/bom/1.4\"/>")))).isTrue();
+        assertThat(CycloneDxParser.isCycloneDx(new BufferedInputStream(stream("{\"spdxVersion\": \"SPDX-2.3\"}")))).isFalse();
+        assertThat(CycloneDxParser.isCycloneDx(new BufferedInputStream(stream("SPDXVersion: SPDX-2.2")))).isFalse();
+    }
+
+    @Test
+    void detectsCycloneDxDocumentsByStructure() {
+        final var metadata = "{\"description\": \"" + "x".repeat(10_000) + "\"}";
+        final var json = "{\"$schema\": \"http://cyclonedx.org/schema/bom-1.4.schema.json\", \"metadata\": " + metadata
+                + ", \"bomFormat\": \"CycloneDX\"}";
+        final var xml = "<?xml version=\"1.0\"?>\n<!-- " + "x".repeat(10_000) + " -->\n<bom/>";
+
+        assertThat(CycloneDxParser.isCycloneDx(new BufferedInputStream(stream(json)))).isTrue();
+        assertThat(CycloneDxParser.isCycloneDx(new BufferedInputStream(stream(xml)))).isTrue();
+        assertThat(CycloneDxParser.isCycloneDx(new BufferedInputStream(stream("<rdf:RDF xmlns:rdf=\"http://www.w3.org/1999/02/22-rdf-syntax-ns#\"/>")))).isFalse();
+    }
+
+    @Test
+    void detectsCycloneDxDocumentsOnlyFromStartOfContent() throws Exception {
+        final var json = "{\"description\": \"" + "x".repeat(100_000) + "\", \"bomFormat\": \"CycloneDX\"}";
+        final var buffered = new BufferedInputStream(stream(json));
+
+        assertThat(CycloneDxParser.isCycloneDx(buffered)).isFalse();
+        assertThat(new String(buffered.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo(json);
+    }
+
+    @Test
+    void keepsStreamPositionAfterDetection() throws Exception {
+        final var content = "{\"bomFormat\": \"CycloneDX\"}";
+        final var buffered = new BufferedInputStream(stream(content));
+
+        CycloneDxParser.isCycloneDx(buffered);
+
+        assertThat(new String(buffered.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo(content);
+    }
+
+    @Test
+    void replacesDependencies() {
+        project.addDependency(new Dependency("Old", "Old stuff"));
+
+        parser.parse(stream("{\"components\": [{\"bom-ref\": \"new\", \"name\": \"New\"}]}"));
+
+        assertThat(project.getDependencies()).hasSize(1);
+        assertThat(project.getDependency("new")).isNotEmpty();
+    }
+
+    @Test
+    void throws_duplicateBomRef() {
+        assertThatThrownBy(() -> parser.parse(stream("{\"components\": [{\"bom-ref\": \"1\", \"name\": \"A\"}, {\"bom-ref\": \"1\", \"name\": \"B\"}]}")))
+                .isInstanceOf(CycloneDxException.class)
+                .hasMessageContaining("Duplicate");
+    }
+
+    @Test
+    void throws_malformedPackageUrl() {
+        assertThatThrownBy(() -> parser.parse(stream("{\"components\": [{\"name\": \"Bad\", \"purl\": \"not a purl\"}]}")))
+                .isInstanceOf(CycloneDxException.class)
+                .hasMessageContaining("not a purl");
+    }
+
+    @Nested
+    class Json {
+        @Test
+        void importsDocument() {
+            parser.parse(stream("{\"bomFormat\": \"CycloneDX\", \"specVersion\": \"1.4\","
+                    + "\"metadata\": {\"timestamp\": \"" + TIMESTAMP + "\", \"component\": {\"bom-ref\": \"product\", \"name\": \"" + TITLE + "\"}},"
+                    + "\"components\": [{\"bom-ref\": \"" + PURL + "\", \"name\": \"Some package\", \"version\": \"1.2.3\", \"purl\": \"" + PURL + "\","
+                    + "  \"supplier\": {\"name\": \"Collector\"}, \"description\": \"Package summary\", \"licenses\": [{\"license\": {\"id\": \"MIT\"}}],"
+                    + "  \"externalReferences\": [{\"type\": \"vcs\", \"url\": \"https://example.com/vcs\"}, {\"type\": \"website\", \"url\": \"https://example.com/package\"}],"
+                    + "  \"components\": [{\"bom-ref\": \"" + NESTED_PURL + "\", \"name\": \"Nested\", \"purl\": \"" + NESTED_PURL + "\", \"licenses\": [{\"expression\": \"Apache-2.0 OR MIT\"}]}]},"
+                    + " {\"bom-ref\": \"" + TOOL_PURL + "\", \"name\": \"Tool\", \"scope\": \"excluded\", \"purl\": \"" + TOOL_PURL + "\"}],"
+                    + "\"dependencies\": [{\"ref\": \"" + PURL + "\", \"dependsOn\": [\"" + TOOL_PURL + "\", \"unknown\"]}]}"));
+
+            assertImportedDocument();
+        }
+
+        @Test
+        void combinesLicenses() {
+            parser.parse(stream("{\"components\": [{\"bom-ref\": \"1\", \"name\": \"Name\","
+                    + "\"licenses\": [{\"license\": {\"id\": \"MIT\"}}, {\"license\": {\"name\": \"Custom license\"}}]}]}"));
+
+            assertThat(project.getDependency("1").orElseThrow().getLicense()).isEqualTo("MIT AND \"Custom license\"");
+        }
+
+        @Test
+        void throws_malformedDocument() {
+            assertThatThrownBy(() -> parser.parse(stream("{\"components\": [")))
+                    .isInstanceOf(CycloneDxException.class);
+        }
+    }
+
+    @Nested
+    class Xml {
+        @Test
+        void importsDocument() {
+            parser.parse(stream("<?xml version=\"1.0\"?><bom xmlns=\"http://cyclonedx.org/schema/bom/1.4\">"
+                    + "<metadata><timestamp>" + TIMESTAMP + "</timestamp><component bom-ref=\"product\"><name>" + TITLE + "</name></component></metadata>"
+                    + "<components><component bom-ref=\"" + PURL + "\"><supplier><name>Collector</name><url>https://example.com</url></supplier>"
+                    + "<name>Some package</name><version>1.2.3</version><description>Package summary</description>"
+                    + "<licenses><license><id>MIT</id></license></licenses><purl>" + PURL + "</purl>"
+                    + "<externalReferences><reference type=\"vcs\"><url>https://example.com/vcs</url></reference>"
+                    + "<reference type=\"website\"><url>https://example.com/package</url></reference></externalReferences>"
+                    + "<components><component bom-ref=\"" + NESTED_PURL + "\"><name>Nested</name>"
+                    + "<licenses><expression>Apache-2.0 OR MIT</expression></licenses><purl>" + NESTED_PURL + "</purl></component></components>"
+                    + "</component>"
+                    + "<component bom-ref=\"" + TOOL_PURL + "\"><name>Tool</name><scope>excluded</scope><purl>" + TOOL_PURL + "</purl></component>"
+                    + "</components>"
+                    + "<dependencies><dependency ref=\"" + PURL + "\"><dependency ref=\"" + TOOL_PURL + "\"/></dependency></dependencies>"
+                    + "</bom>"));
+
+            assertImportedDocument();
+        }
+
+        @Test
+        void throws_documentTypeDefinition() {
+            assertThatThrownBy(() -> parser.parse(stream("<?xml version=\"1.0\"?><!DOCTYPE bom [<!ENTITY xxe SYSTEM \"file:///etc/passwd\">]>"
+                    + "<bom xmlns=\"http://cyclonedx.org/schema/bom/1.4\"><components>"
+                    + "<component bom-ref=\"1\"><name>Name</name><description>&xxe;</description></component>"
+                    + "</components></bom>")))
+                    .isInstanceOf(CycloneDxException.class);
+            assertThat(project.getDependencies()).isEmpty();
+        }
+
+        @Test
+        void throws_malformedDocument() {
+            assertThatThrownBy(() -> parser.parse(stream("<bom><components>")))
+                    .isInstanceOf(CycloneDxException.class);
+        }
+
+        @Test
+        void throws_notABom() {
+            assertThatThrownBy(() -> parser.parse(stream("<other/>")))
+                    .isInstanceOf(CycloneDxException.class)
+                    .hasMessageContaining("bom");
+        }
+    }
+}
@@ -8,8 +8,11 @@ package com.philips.research.bombar.core.domain;
 import com.github.packageurl.MalformedPackageURLException;
 import com.github.packageurl.PackageURL;
 import nl.jqno.equalsverifier.EqualsVerifier;
+import nl.jqno.equalsverifier.Warning;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 class DependencyTest {
@@ -115,6 +118,15 @@ class DependencyTest {
         assertThat(dependency.isDelivered()).isTrue();
     }
 
+    @Test
+    void clearsStatus() {
+        dependency.setRoot().setDevelopment().clearStatus();
+
+        assertThat(dependency.isRoot()).isFalse();
+        assertThat(dependency.isDevelopment()).isFalse();
+        assertThat(dependency.isDelivered()).isFalse();
+    }
+
     @Test
     void tracksNumberOfIssues() {
         dependency.setIssueCount(COUNT);
@@ -122,6 +134,14 @@ class DependencyTest {
         assertThat(dependency.getIssueCount()).isEqualTo(COUNT);
     }
 
+    @Test
+    void tracksViolations() {
+        dependency.setViolations(List.of("First", "Second"));
+
+        assertThat(dependency.getViolations()).containsExactly("First", "Second");
+        assertThat(dependency.getIssueCount()).isEqualTo(2);
+    }
+
     @Test
     void addsRelations() {
         final var target = new Dependency(ID, "Child");
@@ -150,31 +170,19 @@ class DependencyTest {
     }
 
     @Test
-    void findsStrongestRelationshipFromOwnUsage() {
-        final var parent = new Dependency(ID, "Parent");
-        final var child = new Dependency(ID, "Child");
-        final var sibling = new Dependency(ID, "Sibling");
-        final var childRelation = new Relation(Relation.Relationship.STATIC_LINK, child);
-        final var siblingRelation = new Relation(Relation.Relationship.DYNAMIC_LINK, sibling);
-        parent.addRelation(childRelation);
-        parent.addRelation(siblingRelation);
-        child.addUsage(parent);
-        sibling.addUsage(parent);
+    void keepsStrongestUsage() {
+        dependency.updateStrongestUsage(Relation.Relationship.DYNAMIC_LINK)
+                .updateStrongestUsage(Relation.Relationship.STATIC_LINK)
+                .updateStrongestUsage(Relation.Relationship.INDEPENDENT);
 
-        assertThat(child.getStrongestUsage()).contains(childRelation.getType());
+        assertThat(dependency.getStrongestUsage()).contains(Relation.Relationship.STATIC_LINK);
     }
 
     @Test
-    void detectsStrongestRelationshipFromMultipleUsages() {
-        final var parent = new Dependency(ID, "Parent");
-        final var strongerRelation = new Relation(Relation.Relationship.STATIC_LINK, dependency);
-        final var weakerRelation = new Relation(Relation.Relationship.DYNAMIC_LINK, dependency);
-
-        parent.addRelation(strongerRelation);
-        parent.addRelation(weakerRelation);
-        dependency.addUsage(parent);
+    void clearsStrongestUsage() {
+        dependency.updateStrongestUsage(Relation.Relationship.DYNAMIC_LINK).clearStrongestUsage();
 
-        assertThat(dependency.getStrongestUsage()).contains(strongerRelation.getType());
+        assertThat(dependency.getStrongestUsage()).isEmpty();
     }
 
     @Test
@@ -189,6 +197,7 @@ class DependencyTest {
         EqualsVerifier.forClass(Dependency.class)
                 .withOnlyTheseFields("key")
                 .withNonnullFields("key")
+                .suppress(Warning.NONFINAL_FIELDS)
                 .withPrefabValues(Dependency.class, new Dependency("A", TITLE), new Dependency("B", TITLE))
                 .verify();
     }
@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2020-2021, Koninklijke Philips N.V., https://www.philips.com
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.philips.research.bombar.core.domain;
+
+import com.philips.research.bombar.core.NotFoundException;
+import com.philips.research.bombar.core.PersistentStore;
+import com.philips.research.bombar.core.ProjectService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class EvaluationInteractorTest {
+    private static final UUID PROJECT1 = UUID.randomUUID();
+    private static final UUID PROJECT2 = UUID.randomUUID();
+    private static final UUID PROJECT3 = UUID.randomUUID();
+    private static final int PAGE_SIZE = 2;
+
+    private final ProjectService projectService = mock(ProjectService.class);
+    private final PersistentStore store = mock(PersistentStore.class);
+    private final ExecutorService coordinator = Executors.newSingleThreadExecutor();
+    private final ExecutorService workers = Executors.newFixedThreadPool(2);
+    private final EvaluationInteractor interactor = new EvaluationInteractor(projectService, store, coordinator, workers, PAGE_SIZE, 1);
+
+    @AfterEach
+    void afterEach() {
+        workers.shutdownNow();
+    }
+
+    @Test
+    void evaluatesAllProjectsInPages() throws Exception {
+        when(store.countProjects()).thenReturn(3L);
+        when(store.findProjectIds(null, PAGE_SIZE)).thenReturn(List.of(PROJECT1, PROJECT2));
+        when(store.findProjectIds(PROJECT2, PAGE_SIZE)).thenReturn(List.of(PROJECT3));
+        when(projectService.checkLicenses(List.of(PROJECT1))).thenReturn(1);
+        when(projectService.checkLicenses(List.of(PROJECT3))).thenReturn(1);
+
+        final var started = interactor.startEvaluation();
+        awaitCompletion();
+
+        final var dto = interactor.findEvaluation(started.id);
+        assertThat(dto.phase).isEqualTo("completed");
+        assertThat(dto.projects).isEqualTo(3);
+        assertThat(dto.processed).isEqualTo(3);
+        assertThat(dto.checked).isEqualTo(2);
+        assertThat(dto.failed).isZero();
+        assertThat(dto.finished).isNotNull();
+        verify(projectService).checkLicenses(List.of(PROJECT2));
+    }
+
+    @Test
+    void reportsFailedProjects() throws Exception {
+        when(store.findProjectIds(null, PAGE_SIZE)).thenReturn(List.of(PROJECT1));
+        when(projectService.checkLicenses(any())).thenThrow(new IllegalStateException("Test"));
+
+        final var started = interactor.startEvaluation();
+        awaitCompletion();
+
+        final var dto = interactor.findEvaluation(started.id);
+        assertThat(dto.phase).isEqualTo("completed");
+        assertThat(dto.processed).isEqualTo(1);
+        assertThat(dto.failed).isEqualTo(1);
+    }
+
+    @Test
+    void failsEvaluation() throws Exception {
+        when(store.findProjectIds(null, PAGE_SIZE)).thenThrow(new IllegalStateException("Error"));
+
+        final var started = interactor.startEvaluation();
+        awaitCompletion();
+
+        final var dto = interactor.findEvaluation(started.id);
+        assertThat(dto.phase).isEqualTo("failed");
+        assertThat(dto.error).isEqualTo("Error");
+    }
+
+    @Test
+    void returnsRunningEvaluation() {
+        final var blocked = new EvaluationInteractor(projectService, store, mock(ExecutorService.class), workers, PAGE_SIZE, 1);
+
+        final var first = blocked.startEvaluation();
+        final var second = blocked.startEvaluation();
+
+        assertThat(second.id).isEqualTo(first.id);
+        assertThat(second.phase).isEqualTo("queued");
+    }
+
+    @Test
+    void throws_unknownEvaluation() {
+        assertThatThrownBy(() -> interactor.findEvaluation(UUID.randomUUID()))
+                .isInstanceOf(NotFoundException.class);
+    }
+
+    private void awaitCompletion() throws InterruptedException {
+        coordinator.shutdown();
+        assertThat(coordinator.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+    }
+}
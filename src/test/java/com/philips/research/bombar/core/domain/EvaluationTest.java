@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2020-2021, Koninklijke Philips N.V., https://www.philips.com
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.philips.research.bombar.core.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EvaluationTest {
+    private static final UUID EVALUATION_ID = UUID.randomUUID();
+
+    private final Evaluation evaluation = new Evaluation(EVALUATION_ID);
+
+    @Test
+    void createsInstance() {
+        assertThat(evaluation.getId()).isEqualTo(EVALUATION_ID);
+        assertThat(evaluation.getCreated()).isNotNull();
+        assertThat(evaluation.getPhase()).isEqualTo(Evaluation.Phase.QUEUED);
+        assertThat(evaluation.getThroughput()).isZero();
+        assertThat(evaluation.getError()).isEmpty();
+        assertThat(evaluation.getFinished()).isEmpty();
+        assertThat(evaluation.isFinished()).isFalse();
+    }
+
+    @Test
+    void tracksProgress() {
+        evaluation.start(42);
+        assertThat(evaluation.getPhase()).isEqualTo(Evaluation.Phase.RUNNING);
+        assertThat(evaluation.getProjectCount()).isEqualTo(42);
+
+        evaluation.processed(10, 7).failed(3);
+        assertThat(evaluation.getProcessedCount()).isEqualTo(13);
+        assertThat(evaluation.getCheckedCount()).isEqualTo(7);
+        assertThat(evaluation.getFailedCount()).isEqualTo(3);
+        assertThat(evaluation.getThroughput()).isPositive();
+
+        evaluation.complete();
+        assertThat(evaluation.getPhase()).isEqualTo(Evaluation.Phase.COMPLETED);
+        assertThat(evaluation.getFinished()).isNotEmpty();
+        assertThat(evaluation.isFinished()).isTrue();
+    }
+
+    @Test
+    void tracksFailure() {
+        evaluation.start(1).fail("Error");
+
+        assertThat(evaluation.getPhase()).isEqualTo(Evaluation.Phase.FAILED);
+        assertThat(evaluation.getError()).contains("Error");
+        assertThat(evaluation.isFinished()).isTrue();
+    }
+}
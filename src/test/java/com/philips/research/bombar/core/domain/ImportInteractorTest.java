@@ -0,0 +1,209 @@
+/*
+ * Copyright (c) 2020-2021, Koninklijke Philips N.V., https://www.philips.com
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.philips.research.bombar.core.domain;
+
+import com.philips.research.bombar.core.BusyException;
+import com.philips.research.bombar.core.NotFoundException;
+import com.philips.research.bombar.core.PersistentStore;
+import com.philips.research.bombar.core.ProjectService;
+import com.philips.research.bombar.core.ProjectService.ImportListener;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ImportInteractorTest {
+    private static final UUID PROJECT_ID = UUID.randomUUID();
+    private static final String CONTENT = "Content";
+
+    private final ProjectService projectService = mock(ProjectService.class);
+    private final PersistentStore store = mock(PersistentStore.class);
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final ImportInteractor interactor = new ImportInteractor(projectService, store, executor);
+
+    @BeforeEach
+    void beforeEach() {
+        when(store.getProject(PROJECT_ID)).thenReturn(Optional.of(new Project(PROJECT_ID)));
+    }
+
+    private InputStream stream() {
+        return new ByteArrayInputStream(CONTENT.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void awaitJobs() throws InterruptedException {
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void importsInBackground() throws Exception {
+        final var content = new String[1];
+        doAnswer(a -> {
+            content[0] = new String(((InputStream) a.getArgument(1)).readAllBytes(), StandardCharsets.UTF_8);
+            final ImportListener listener = a.getArgument(3);
+            listener.parsed(3);
+            listener.checked(2);
+            return null;
+        }).when(projectService).importSpdx(eq(PROJECT_ID), any(), any(), any());
+
+        final var job = interactor.startImport(PROJECT_ID, stream());
+        awaitJobs();
+
+        assertThat(job.projectId).isEqualTo(PROJECT_ID);
+        assertThat(content[0]).isEqualTo(CONTENT);
+        verify(projectService).importSpdx(eq(PROJECT_ID), any(), eq(Sha256.of(CONTENT)), any());
+        final var status = interactor.findImport(job.id);
+        assertThat(status.phase).isEqualTo("completed");
+        assertThat(status.dependencies).isEqualTo(3);
+        assertThat(status.violations).isEqualTo(2);
+        assertThat(status.error).isNull();
+        assertThat(status.finished).isNotNull();
+    }
+
+    @Test
+    void reportsFailedImport() throws Exception {
+        doThrow(new DomainException("Broken")).when(projectService).importSpdx(eq(PROJECT_ID), any(), any(), any());
+
+        final var job = interactor.startImport(PROJECT_ID, stream());
+        awaitJobs();
+
+        final var status = interactor.findImport(job.id);
+        assertThat(status.phase).isEqualTo("failed");
+        assertThat(status.error).isEqualTo("Broken");
+    }
+
+    @Test
+    void importsSameProjectOneAtATime() throws Exception {
+        final var pool = Executors.newFixedThreadPool(2);
+        final var serialized = new ImportInteractor(projectService, store, pool);
+        final var running = new AtomicInteger();
+        final var overlapped = new AtomicBoolean();
+        final var order = new ArrayList<String>();
+        doAnswer(a -> {
+            if (running.incrementAndGet() > 1) {
+                overlapped.set(true);
+            }
+            Thread.sleep(50);
+            synchronized (order) {
+                order.add(new String(((InputStream) a.getArgument(1)).readAllBytes(), StandardCharsets.UTF_8));
+            }
+            running.decrementAndGet();
+            return null;
+        }).when(projectService).importSpdx(eq(PROJECT_ID), any(), any(), any());
+
+        serialized.startImport(PROJECT_ID, new ByteArrayInputStream("First".getBytes(StandardCharsets.UTF_8)));
+        serialized.startImport(PROJECT_ID, new ByteArrayInputStream("Second".getBytes(StandardCharsets.UTF_8)));
+        pool.shutdown();
+        assertThat(pool.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(overlapped).isFalse();
+        assertThat(order).containsExactly("First", "Second");
+    }
+
+    @Test
+    void replacesWaitingImportOfSameProject() throws Exception {
+        final var pool = Executors.newFixedThreadPool(2);
+        final var serialized = new ImportInteractor(projectService, store, pool);
+        final var started = new CountDownLatch(1);
+        final var release = new CountDownLatch(1);
+        final var order = new ArrayList<String>();
+        doAnswer(a -> {
+            started.countDown();
+            release.await();
+            synchronized (order) {
+                order.add(new String(((InputStream) a.getArgument(1)).readAllBytes(), StandardCharsets.UTF_8));
+            }
+            return null;
+        }).when(projectService).importSpdx(eq(PROJECT_ID), any(), any(), any());
+        final var before = spooledFiles();
+
+        serialized.startImport(PROJECT_ID, new ByteArrayInputStream("First".getBytes(StandardCharsets.UTF_8)));
+        assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+        final var second = serialized.startImport(PROJECT_ID, new ByteArrayInputStream("Second".getBytes(StandardCharsets.UTF_8)));
+        serialized.startImport(PROJECT_ID, new ByteArrayInputStream("Third".getBytes(StandardCharsets.UTF_8)));
+        for (var i = 0; i < 1000 && !"failed".equals(serialized.findImport(second.id).phase); i++) {
+            Thread.sleep(10);
+        }
+        release.countDown();
+        pool.shutdown();
+        assertThat(pool.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(order).containsExactly("First", "Third");
+        assertThat(serialized.findImport(second.id).error).contains("Superseded");
+        assertThat(spooledFiles()).isEqualTo(before);
+    }
+
+    @Test
+    void cancelsQueuedImportsOnShutdown() throws Exception {
+        final var started = new CountDownLatch(1);
+        doAnswer(a -> {
+            started.countDown();
+            new CountDownLatch(1).await();
+            return null;
+        }).when(projectService).importSpdx(eq(PROJECT_ID), any(), any(), any());
+        final var before = spooledFiles();
+
+        final var first = interactor.startImport(PROJECT_ID, stream());
+        final var second = interactor.startImport(PROJECT_ID, stream());
+        assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+        interactor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(interactor.findImport(first.id).phase).isEqualTo("failed");
+        assertThat(interactor.findImport(second.id).phase).isEqualTo("failed");
+        assertThat(spooledFiles()).isEqualTo(before);
+    }
+
+    private long spooledFiles() throws IOException {
+        try (final var files = Files.list(Path.of(System.getProperty("java.io.tmpdir")))) {
+            return files.filter(file -> file.getFileName().toString().startsWith("bombar-import-")).count();
+        }
+    }
+
+    @Test
+    void throws_unknownProject() {
+        final var unknown = UUID.randomUUID();
+
+        assertThatThrownBy(() -> interactor.startImport(unknown, stream()))
+                .isInstanceOf(NotFoundException.class)
+                .hasMessageContaining(unknown.toString());
+        verifyNoInteractions(projectService);
+    }
+
+    @Test
+    void throws_queueFull() {
+        executor.shutdown();
+
+        assertThatThrownBy(() -> interactor.startImport(PROJECT_ID, stream()))
+                .isInstanceOf(BusyException.class);
+    }
+
+    @Test
+    void throws_unknownImport() {
+        assertThatThrownBy(() -> interactor.findImport(UUID.randomUUID()))
+                .isInstanceOf(NotFoundException.class);
+    }
+}
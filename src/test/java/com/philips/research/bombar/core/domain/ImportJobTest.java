@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2020-2021, Koninklijke Philips N.V., https://www.philips.com
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.philips.research.bombar.core.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ImportJobTest {
+    private static final UUID JOB_ID = UUID.randomUUID();
+    private static final UUID PROJECT_ID = UUID.randomUUID();
+
+    private final ImportJob job = new ImportJob(JOB_ID, PROJECT_ID);
+
+    @Test
+    void createsInstance() {
+        assertThat(job.getId()).isEqualTo(JOB_ID);
+        assertThat(job.getProjectId()).isEqualTo(PROJECT_ID);
+        assertThat(job.getCreated()).isNotNull();
+        assertThat(job.getPhase()).isEqualTo(ImportJob.Phase.QUEUED);
+        assertThat(job.getError()).isEmpty();
+        assertThat(job.getFinished()).isEmpty();
+        assertThat(job.isFinished()).isFalse();
+    }
+
+    @Test
+    void tracksProgress() {
+        job.start();
+        assertThat(job.getPhase()).isEqualTo(ImportJob.Phase.PARSING);
+
+        job.parsed(42);
+        assertThat(job.getPhase()).isEqualTo(ImportJob.Phase.PERSISTING);
+        assertThat(job.getDependencyCount()).isEqualTo(42);
+
+        job.persisted();
+        assertThat(job.getPhase()).isEqualTo(ImportJob.Phase.CHECKING);
+
+        job.checked(7);
+        assertThat(job.getPhase()).isEqualTo(ImportJob.Phase.CHECKING);
+        assertThat(job.getViolationCount()).isEqualTo(7);
+
+        job.complete();
+        assertThat(job.getPhase()).isEqualTo(ImportJob.Phase.COMPLETED);
+        assertThat(job.getFinished()).isNotEmpty();
+        assertThat(job.isFinished()).isTrue();
+    }
+
+    @Test
+    void tracksFailure() {
+        job.start().fail("Error");
+
+        assertThat(job.getPhase()).isEqualTo(ImportJob.Phase.FAILED);
+        assertThat(job.getError()).contains("Error");
+        assertThat(job.isFinished()).isTrue();
+    }
+
+    @Test
+    void tracksUnchangedImport() {
+        job.start().unchanged();
+        job.complete();
+
+        assertThat(job.isUnchanged()).isTrue();
+        assertThat(job.getPhase()).isEqualTo(ImportJob.Phase.COMPLETED);
+    }
+}
@@ -0,0 +1,30 @@
+/*
+ * Copyright (c) 2020-2021, Koninklijke Philips N.V., https://www.philips.com
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.philips.research.bombar.core.domain;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LicenseCheckConfigurationTest {
+    private final LicenseCheckConfiguration configuration = new LicenseCheckConfiguration();
+
+    @Test
+    void createsPoolOfConfiguredSize() {
+        final var pool = configuration.licenseCheckPool(3);
+
+        assertThat(pool.getParallelism()).isEqualTo(3);
+        pool.shutdownNow();
+    }
+
+    @Test
+    void defaultsToNumberOfProcessors() {
+        final var pool = configuration.licenseCheckPool(0);
+
+        assertThat(pool.getParallelism()).isEqualTo(Runtime.getRuntime().availableProcessors());
+        pool.shutdownNow();
+    }
+}
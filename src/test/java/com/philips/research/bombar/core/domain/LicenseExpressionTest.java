@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2020-2021, Koninklijke Philips N.V., https://www.philips.com
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.philips.research.bombar.core.domain;
+
+import com.philips.research.bombar.core.domain.LicenseExpression.Compound;
+import com.philips.research.bombar.core.domain.LicenseExpression.License;
+import com.philips.research.bombar.core.domain.LicenseExpression.Operator;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LicenseExpressionTest {
+    @Test
+    void parsesEmptyExpression() {
+        assertThat(LicenseExpression.parse("")).isSameAs(LicenseExpression.EMPTY);
+        assertThat(LicenseExpression.parse(" \t\n")).isSameAs(LicenseExpression.EMPTY);
+        assertThat(LicenseExpression.EMPTY.isEmpty()).isTrue();
+        assertThat(LicenseExpression.EMPTY.getLicenses()).isEmpty();
+    }
+
+    @Test
+    void parsesSingleLicense() {
+        final var expression = LicenseExpression.parse(" MIT ");
+
+        assertThat(expression).isInstanceOf(License.class);
+        assertThat(((License) expression).getIdentifier()).isEqualTo("MIT");
+        assertThat(((License) expression).getException()).isEmpty();
+        assertThat(expression.getLicenses()).containsExactly("MIT");
+        assertThat(expression.hasAlternatives()).isFalse();
+    }
+
+    @Test
+    void parsesLicenseWithException() {
+        final var expression = LicenseExpression.parse("GPL-2.0-only WITH Classpath-exception-2.0");
+
+        assertThat(((License) expression).getIdentifier()).isEqualTo("GPL-2.0-only");
+        assertThat(((License) expression).getException()).contains("Classpath-exception-2.0");
+        assertThat(expression.getLicenses()).containsExactly("GPL-2.0-only WITH Classpath-exception-2.0");
+    }
+
+    @Test
+    void parsesOperatorsByPrecedence() {
+        final var expression = LicenseExpression.parse("A OR B AND C WITH D OR E");
+
+        assertThat(expression).isInstanceOf(Compound.class);
+        final var compound = (Compound) expression;
+        assertThat(compound.getOperator()).isEqualTo(Operator.OR);
+        assertThat(compound.getOperands()).hasSize(3);
+        assertThat(compound.getOperands().get(1).getLicenses()).containsExactly("B", "C WITH D");
+        assertThat(expression).hasToString("A OR (B AND C WITH D) OR E");
+    }
+
+    @Test
+    void parsesParentheses() {
+        final var expression = LicenseExpression.parse("(A OR B) AND (C OR (D))");
+
+        assertThat(((Compound) expression).getOperator()).isEqualTo(Operator.AND);
+        assertThat(expression.getLicenses()).containsExactly("A", "B", "C", "D");
+        assertThat(expression.hasAlternatives()).isTrue();
+        assertThat(expression).hasToString("(A OR B) AND (C OR D)");
+    }
+
+    @Test
+    void listsDistinctLicenses() {
+        final var expression = LicenseExpression.parse("(A OR ( B AND A) OR (C and D ))");
+
+        assertThat(expression.getLicenses()).containsExactly("A", "B", "C and D");
+    }
+
+    @Test
+    void parsesQuotedLicenseNames() {
+        final var expression = LicenseExpression.parse("\"Custom AND (other)\" OR MIT");
+
+        assertThat(expression.getLicenses()).containsExactly("\"Custom AND (other)\"", "MIT");
+    }
+
+    @Test
+    void detectsAlternatives() {
+        assertThat(LicenseExpression.parse("A AND B").hasAlternatives()).isFalse();
+        assertThat(LicenseExpression.parse("A OR B").hasAlternatives()).isTrue();
+        assertThat(LicenseExpression.parse("A AND (B OR C)").hasAlternatives()).isTrue();
+    }
+
+    @Test
+    void internsParsedExpressions() {
+        final var expression = LicenseExpression.parse("Apache-2.0 OR MIT");
+
+        assertThat(LicenseExpression.parse("Apache-2.0 OR MIT")).isSameAs(expression);
+    }
+
+    @Nested
+    class Malformed {
+        @Test
+        void ignoresUnbalancedParentheses() {
+            assertThat(LicenseExpression.parse("(A OR B").getLicenses()).containsExactly("A", "B");
+            assertThat(LicenseExpression.parse("A) AND B)").getLicenses()).containsExactly("A", "B");
+        }
+
+        @Test
+        void ignoresDanglingOperators() {
+            assertThat(LicenseExpression.parse("AND A OR").getLicenses()).containsExactly("A");
+            assertThat(LicenseExpression.parse("A WITH").getLicenses()).containsExactly("A");
+            assertThat(LicenseExpression.parse("WITH").isEmpty()).isTrue();
+        }
+    }
+}
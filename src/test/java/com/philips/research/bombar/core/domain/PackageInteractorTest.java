@@ -15,11 +15,11 @@ import org.junit.jupiter.api.Test;
 import java.net.URI;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
-import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 
 class PackageInteractorTest {
     private static final URI REFERENCE = URI.create("Package/reference");
@@ -28,7 +28,8 @@ class PackageInteractorTest {
     private static final String FRAGMENT = "Fragment";
 
     private final PersistentStore store = mock(PersistentStore.class);
-    private final PackageService interactor = new PackageInteractor(store);
+    private final RecheckQueue recheckQueue = mock(RecheckQueue.class);
+    private final PackageService interactor = new PackageInteractor(store, recheckQueue);
     private final Package pkg = new Package(PACKAGE_REF);
 
     @BeforeEach
@@ -87,4 +88,24 @@ class PackageInteractorTest {
 
         assertThat(pkg.isLicenseExempted(LICENSE)).isFalse();
     }
+
+    @Test
+    void invalidatesSourceOfProjectsUsingPackage() {
+        final var project = new Project(UUID.randomUUID()).setSource("Hash", "Version");
+        when(store.findProjectsUsing(pkg)).thenReturn(List.of(project));
+
+        interactor.setApproval(REFERENCE, Approval.REJECTED);
+
+        assertThat(project.getSourceHash()).isEmpty();
+    }
+
+    @Test
+    void schedulesRecheckOfProjectsUsingPackage() {
+        final var project = new Project(UUID.randomUUID());
+        when(store.findProjectsUsing(pkg)).thenReturn(List.of(project));
+
+        interactor.exemptLicense(REFERENCE, LICENSE);
+
+        verify(recheckQueue).schedule(List.of(project.getId()));
+    }
 }
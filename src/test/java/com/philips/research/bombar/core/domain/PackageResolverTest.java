@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2020-2021, Koninklijke Philips N.V., https://www.philips.com
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.philips.research.bombar.core.domain;
+
+import com.philips.research.bombar.core.PersistentStore;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class PackageResolverTest {
+    private static final PackageRef EXISTING_REF = new PackageRef("existing");
+    private static final PackageRef MISSING_REF = new PackageRef("missing");
+
+    private final PersistentStore store = mock(PersistentStore.class);
+    private final PackageResolver resolver = new PackageResolver(store);
+    private final Package existing = new Package(EXISTING_REF);
+    private final Package missing = new Package(MISSING_REF);
+
+    @Test
+    void resolvesPackagesInSingleLookup() {
+        when(store.getPackageDefinitions(any())).thenReturn(List.of(existing));
+        when(store.createPackageDefinitions(List.of(MISSING_REF))).thenReturn(List.of(missing));
+        final var resolved = new ArrayList<Package>();
+
+        resolver.add(EXISTING_REF, resolved::add)
+                .add(MISSING_REF, resolved::add)
+                .add(EXISTING_REF, resolved::add)
+                .resolve();
+
+        verify(store).getPackageDefinitions(List.of(EXISTING_REF, MISSING_REF));
+        verify(store).createPackageDefinitions(List.of(MISSING_REF));
+        assertThat(resolved).containsExactlyInAnyOrder(existing, existing, missing);
+    }
+
+    @Test
+    void skipsCreation_allPackagesExist() {
+        when(store.getPackageDefinitions(any())).thenReturn(List.of(existing));
+        final var resolved = new ArrayList<Package>();
+
+        resolver.add(EXISTING_REF, resolved::add).resolve();
+
+        verify(store, never()).createPackageDefinitions(any());
+        assertThat(resolved).containsExactly(existing);
+    }
+
+    @Test
+    void skipsStore_nothingToResolve() {
+        resolver.resolve();
+
+        verifyNoInteractions(store);
+    }
+
+    @Test
+    void resolvesOnlyOnce() {
+        when(store.getPackageDefinitions(any())).thenReturn(List.of(existing));
+        final var resolved = new ArrayList<Package>();
+        resolver.add(EXISTING_REF, resolved::add).resolve();
+
+        resolver.resolve();
+
+        assertThat(resolved).hasSize(1);
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2020-2021, Koninklijke Philips N.V., https://www.philips.com
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.philips.research.bombar.core.domain;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures building and querying the dependency graph of a large project.
+ * Run from the test classpath using the main method, or using "org.openjdk.jmh.Main ProjectBenchmark".
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProjectBenchmark {
+    private static final int DEPENDENCIES = 50_000;
+    private static final int PACKAGES = 5_000;
+    private static final int PARENTS = 2;
+
+    private final List<Dependency> dependencies = new ArrayList<>();
+    private Project project = new Project(UUID.randomUUID());
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ProjectBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+
+    @Setup
+    public void setup() {
+        project = buildProject();
+    }
+
+    @Benchmark
+    public Project buildProject() {
+        final var random = new Random(42);
+        final var packages = new ArrayList<Package>();
+        for (var i = 0; i < PACKAGES; i++) {
+            packages.add(new Package(new PackageRef(URI.create("pkg:maven/group/package" + i))));
+        }
+        final var result = new Project(UUID.randomUUID());
+        dependencies.clear();
+        for (var i = 0; i < DEPENDENCIES; i++) {
+            final var dependency = new Dependency("Dep" + i, "Dependency " + i)
+                    .setPackage(packages.get(random.nextInt(PACKAGES)));
+            result.addDependency(dependency);
+            for (var p = 0; i > 0 && p < PARENTS; p++) {
+                final var parent = dependencies.get(random.nextInt(dependencies.size()));
+                result.addRelationship(parent, dependency, Relation.Relationship.values()[random.nextInt(5)]);
+            }
+            dependencies.add(dependency);
+        }
+        return result.postProcess();
+    }
+
+    @Benchmark
+    public Collection<Dependency> findRootDependencies() {
+        return project.getRootDependencies();
+    }
+
+    @Benchmark
+    public Project exemptPackage() {
+        final var dependency = dependencies.get(DEPENDENCIES / 2);
+        return project.exempt(dependency, "Rationale").unexempt(dependency);
+    }
+}
@@ -6,8 +6,12 @@
 package com.philips.research.bombar.core.domain;
 
 import com.philips.research.bombar.core.BusinessException;
+import com.philips.research.bombar.core.NotFoundException;
 import com.philips.research.bombar.core.PersistentStore;
+import com.philips.research.bombar.core.ProjectService;
+import com.philips.research.bombar.core.ProjectService.ProjectCursor;
 import com.philips.research.bombar.core.ProjectService.ProjectDto;
+import com.philips.research.bombar.core.domain.licenses.Licenses;
 import com.philips.research.bombar.core.domain.licenses.ObligationsAnalyzer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
@@ -16,11 +20,14 @@ import org.junit.jupiter.api.Test;
 import java.io.InputStream;
 import java.net.URI;
 import java.net.URL;
+import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
@@ -30,28 +37,62 @@ class ProjectInteractorTest {
     private static final UUID PROJECT_ID = UUID.randomUUID();
     @SuppressWarnings("ConstantConditions")
     private static final URL VALID_SPDX = ProjectInteractorTest.class.getResource("/valid.spdx");
+    @SuppressWarnings("ConstantConditions")
+    private static final URL VALID_SPDX_JSON = ProjectInteractorTest.class.getResource("/valid.spdx.json");
+    private static final URL VALID_CDX_JSON = ProjectInteractorTest.class.getResource("/valid.cdx.json");
+    private static final URL VALID_CDX_XML = ProjectInteractorTest.class.getResource("/valid.cdx.xml");
     private static final UUID UNKNOWN_UUID = UUID.randomUUID();
     private static final PackageRef PACKAGE_REFERENCE = new PackageRef("package/reference");
     private static final Package PACKAGE = new Package(PACKAGE_REFERENCE);
     private static final String VERSION = "Version";
+    private static final String PURL = "pkg:maven/namespace/name@1.0";
     private static final Project.Distribution DISTRIBUTION = Project.Distribution.SAAS;
     private static final Project.Phase PHASE = Project.Phase.DEVELOPMENT;
     private static final String RATIONALE = "Rationale";
+    private static final String HASH = "Hash";
+    private static final ProjectService.ImportListener LISTENER = new ProjectService.ImportListener() {
+    };
 
     private final PersistentStore store = mock(PersistentStore.class);
-    private final ProjectInteractor interactor = spy(new ProjectInteractor(store));
+    private final ProjectInteractor interactor = spy(new ProjectInteractor(store, null));
 
     @Test
     void findsProjectsByName() {
         final var project = new Project(PROJECT_ID).setTitle(TITLE);
-        when(store.findProjects(TITLE)).thenReturn(List.of(project, new Project(UUID.randomUUID())));
+        when(store.findProjects(TITLE, null, null, 1)).thenReturn(List.of(project));
 
-        final var projects = interactor.findProjects(TITLE, 1);
+        final var projects = interactor.findProjects(TITLE, null, 1);
 
         assertThat(projects).hasSize(1);
         assertThat(projects.get(0).title).isEqualTo(TITLE);
     }
 
+    @Test
+    void findsNextPageOfProjects() {
+        final var lastUpdate = Instant.now();
+        final var project = new Project(UUID.randomUUID());
+        when(store.findProjects(TITLE, lastUpdate, PROJECT_ID, 1)).thenReturn(List.of(project));
+
+        final var projects = interactor.findProjects(TITLE, new ProjectCursor(lastUpdate, PROJECT_ID), 1);
+
+        assertThat(projects.get(0).id).isEqualTo(project.getId());
+        verify(store, never()).getProject(any());
+    }
+
+    @Test
+    void findsNoProjectsForEmptyPage() {
+        assertThat(interactor.findProjects(TITLE, null, 0)).isEmpty();
+        assertThat(interactor.findProjects(TITLE, null, -1)).isEmpty();
+        verify(store, never()).findProjects(any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void capsPageSizeOfProjects() {
+        interactor.findProjects(TITLE, null, Integer.MAX_VALUE);
+
+        verify(store).findProjects(TITLE, null, null, ProjectInteractor.MAX_PAGE_SIZE);
+    }
+
     @Test
     void createsAnonymousProject() {
         var project = new Project(PROJECT_ID);
@@ -101,6 +142,7 @@ class ProjectInteractorTest {
         @BeforeEach
         void setUp() {
             when(store.getProject(PROJECT_ID)).thenReturn(Optional.of(project));
+            when(store.getProjectGraph(PROJECT_ID)).thenReturn(Optional.of(project));
         }
 
         @Test
@@ -112,9 +154,29 @@ class ProjectInteractorTest {
 
         @Test
         void readProjectDependencies() {
+            final var summary = mock(DependencySummary.class);
+            when(summary.getKey()).thenReturn(DEPENDENCY_ID);
+            when(summary.getPurl()).thenReturn(PURL);
+            when(store.findDependencySummaries(project)).thenReturn(List.of(summary));
+
             final var dtos = interactor.findDependencies(PROJECT_ID);
 
             assertThat(dtos).hasSize(1);
+            assertThat(dtos.get(0).id).isEqualTo(DEPENDENCY_ID);
+            assertThat(dtos.get(0).purl).isEqualTo(URI.create(PURL));
+        }
+
+        @Test
+        void ignoresMalformedStoredPurlOfProjectDependencies() {
+            final var summary = mock(DependencySummary.class);
+            when(summary.getKey()).thenReturn(DEPENDENCY_ID);
+            when(summary.getPurl()).thenReturn("pkg:maven/namespace/name@1.0 beta");
+            when(store.findDependencySummaries(project)).thenReturn(List.of(summary));
+
+            final var dtos = interactor.findDependencies(PROJECT_ID);
+
+            assertThat(dtos.get(0).id).isEqualTo(DEPENDENCY_ID);
+            assertThat(dtos.get(0).purl).isNull();
         }
 
         @Test
@@ -127,6 +189,64 @@ class ProjectInteractorTest {
             assertThat(dto.violations).isNotNull();
         }
 
+        @Test
+        void checksLicensesOfProjects() {
+            dependency.setViolations(List.of("Outdated"));
+
+            final var count = interactor.checkLicenses(List.of(PROJECT_ID, UUID.randomUUID()));
+
+            assertThat(count).isEqualTo(1);
+            assertThat(dependency.getViolations()).containsExactly("has no license");
+            assertThat(project.isCheckedWith(Licenses.REGISTRY.getVersion())).isTrue();
+        }
+
+        @Test
+        void checksLicensesOfProjectsOnCallingThread() {
+            final var pool = mock(ForkJoinPool.class);
+            for (var i = 0; i < 2000; i++) {
+                project.addDependency(new Dependency("Dependency" + i, TITLE));
+            }
+
+            final var count = new ProjectInteractor(store, pool).checkLicenses(List.of(PROJECT_ID));
+
+            assertThat(count).isEqualTo(1);
+            verifyNoInteractions(pool);
+        }
+
+        @Test
+        void skipsCheckOfUpToDateProjects() {
+            dependency.setViolations(List.of("Stored"));
+            project.setChecked(Licenses.REGISTRY.getVersion());
+
+            final var count = interactor.checkLicenses(List.of(PROJECT_ID));
+
+            assertThat(count).isZero();
+            assertThat(dependency.getViolations()).containsExactly("Stored");
+        }
+
+        @Test
+        void readsStoredViolationsOfDependency() {
+            dependency.setViolations(List.of("Stored"));
+            project.setChecked(Licenses.REGISTRY.getVersion());
+
+            final var dto = interactor.findDependency(PROJECT_ID, DEPENDENCY_ID);
+
+            assertThat(dto.violations).containsExactly("Stored");
+            verify(store, never()).getProjectGraph(any());
+        }
+
+        @Test
+        void checksLicensesIfStoredViolationsAreOutdated() {
+            dependency.setViolations(List.of("Outdated"));
+            project.setChecked("Outdated");
+
+            final var dto = interactor.findDependency(PROJECT_ID, DEPENDENCY_ID);
+
+            assertThat(dto.violations).containsExactly("has no license");
+            assertThat(project.isCheckedWith(Licenses.REGISTRY.getVersion())).isTrue();
+            verify(store).getProjectGraph(PROJECT_ID);
+        }
+
         @Test
         void updatesProject() {
             project.setTitle("Other")
@@ -186,6 +306,7 @@ class ProjectInteractorTest {
             interactor.exempt(PROJECT_ID, DEPENDENCY_ID, RATIONALE);
 
             assertThat(dependency.getExemption()).isNotEmpty();
+            verify(store, never()).getProjectGraph(any());
         }
 
         @Test
@@ -234,7 +355,7 @@ class ProjectInteractorTest {
             void throws_importForUnknownProject() {
                 when(store.getProject(UNKNOWN_UUID)).thenReturn(Optional.empty());
 
-                assertThatThrownBy(() -> interactor.importSpdx(UNKNOWN_UUID, mock(InputStream.class)))
+                assertThatThrownBy(() -> interactor.importSpdx(UNKNOWN_UUID, mock(InputStream.class), HASH, LISTENER))
                         .isInstanceOf(BusinessException.class)
                         .hasMessageContaining(UNKNOWN_UUID.toString());
             }
@@ -242,16 +363,115 @@ class ProjectInteractorTest {
             @Test
             void importsProject() throws Exception {
                 project.clearDependencies();
-                when(store.createDependency(eq(project), any(), any())).thenAnswer(
-                        (a) -> new Dependency(a.getArgument(1), a.getArgument(2)));
+                when(store.createDependencies(eq(project), any())).thenAnswer(
+                        (a) -> new ArrayList<>(a.<Collection<Dependency>>getArgument(1)));
 
                 try (InputStream stream = VALID_SPDX.openStream()) {
-                    interactor.importSpdx(PROJECT_ID, stream);
+                    interactor.importSpdx(PROJECT_ID, stream, HASH, LISTENER);
                 }
 
-                verify(store).deleteDependencies(project);
                 assertThat(project.getDependencies()).isNotEmpty();
             }
+
+            @Test
+            void importsProjectFromJson() throws Exception {
+                project.clearDependencies();
+                when(store.createDependencies(eq(project), any())).thenAnswer(
+                        (a) -> new ArrayList<>(a.<Collection<Dependency>>getArgument(1)));
+
+                try (InputStream stream = VALID_SPDX_JSON.openStream()) {
+                    interactor.importSpdx(PROJECT_ID, stream, HASH, LISTENER);
+                }
+
+                assertThat(project.getDependencies()).hasSize(1);
+                assertThat(project.getDependency("SPDXRef-1").orElseThrow().getPurl()).isNotEmpty();
+            }
+
+            @Test
+            void reportsImportProgress() throws Exception {
+                project.clearDependencies();
+                when(store.createDependencies(eq(project), any())).thenAnswer(
+                        (a) -> new ArrayList<>(a.<Collection<Dependency>>getArgument(1)));
+                final var listener = mock(ProjectService.ImportListener.class);
+
+                try (InputStream stream = VALID_CDX_JSON.openStream()) {
+                    interactor.importSpdx(PROJECT_ID, stream, HASH, listener);
+                }
+
+                final var order = inOrder(listener, store);
+                order.verify(listener).parsed(4);
+                order.verify(store).flush();
+                order.verify(listener).persisted();
+                order.verify(listener).checked(anyInt());
+            }
+
+            @Test
+            void importsProjectFromCycloneDx() throws Exception {
+                project.clearDependencies();
+                when(store.createDependencies(eq(project), any())).thenAnswer(
+                        (a) -> new ArrayList<>(a.<Collection<Dependency>>getArgument(1)));
+
+                try (InputStream stream = VALID_CDX_JSON.openStream()) {
+                    interactor.importSpdx(PROJECT_ID, stream, HASH, LISTENER);
+                }
+
+                assertThat(project.getDependencies()).hasSize(4);
+                assertThat(project.getDependency("pkg:maven/some/package@1.2.3").orElseThrow().getLicense()).isEqualTo("MIT");
+            }
+
+            @Test
+            void importsProjectFromCycloneDxXml() throws Exception {
+                project.clearDependencies();
+                when(store.createDependencies(eq(project), any())).thenAnswer(
+                        (a) -> new ArrayList<>(a.<Collection<Dependency>>getArgument(1)));
+
+                try (InputStream stream = VALID_CDX_XML.openStream()) {
+                    interactor.importSpdx(PROJECT_ID, stream, HASH, LISTENER);
+                }
+
+                assertThat(project.getDependencies()).hasSize(4);
+                assertThat(project.getDependency("pkg:maven/some/nested@2.0").orElseThrow().getLicense()).isEqualTo("Apache-2.0 OR MIT");
+            }
+
+            @Test
+            void skipsImportOfUnchangedFile() throws Exception {
+                project.clearDependencies();
+                when(store.createDependencies(eq(project), any())).thenAnswer(
+                        (a) -> new ArrayList<>(a.<Collection<Dependency>>getArgument(1)));
+                try (InputStream stream = VALID_CDX_JSON.openStream()) {
+                    interactor.importSpdx(PROJECT_ID, stream, HASH, LISTENER);
+                }
+                assertThat(project.getSourceHash()).isNotEmpty();
+                assertThat(project.getRegistryVersion()).contains(Licenses.REGISTRY.getVersion());
+                project.clearDependencies();
+                final var listener = mock(ProjectService.ImportListener.class);
+
+                try (InputStream stream = VALID_CDX_JSON.openStream()) {
+                    interactor.importSpdx(PROJECT_ID, stream, HASH, listener);
+                }
+
+                verify(listener).unchanged();
+                verify(listener, never()).parsed(anyInt());
+                assertThat(project.getDependencies()).isEmpty();
+            }
+
+            @Test
+            void importsChangedFile() throws Exception {
+                project.clearDependencies();
+                when(store.createDependencies(eq(project), any())).thenAnswer(
+                        (a) -> new ArrayList<>(a.<Collection<Dependency>>getArgument(1)));
+                try (InputStream stream = VALID_CDX_JSON.openStream()) {
+                    interactor.importSpdx(PROJECT_ID, stream, HASH, LISTENER);
+                }
+                final var hash = project.getSourceHash().orElseThrow();
+
+                try (InputStream stream = VALID_CDX_XML.openStream()) {
+                    interactor.importSpdx(PROJECT_ID, stream, "Other hash", LISTENER);
+                }
+
+                assertThat(project.getSourceHash()).contains("Other hash");
+                assertThat(project.getSourceHash().orElseThrow()).isNotEqualTo(hash);
+            }
         }
     }
 
@@ -46,6 +46,38 @@ class ProjectTest {
         assertThat(project.getLastUpdate()).contains(now);
     }
 
+    @Test
+    void registersLicenseCheck() {
+        project.setChecked("Version");
+
+        assertThat(project.isCheckedWith("Version")).isTrue();
+        assertThat(project.isCheckedWith("Other")).isFalse();
+        assertThat(project.invalidateSource().isCheckedWith("Version")).isFalse();
+    }
+
+    @Test
+    void registersSource() {
+        project.setSource("Hash", "Version");
+
+        assertThat(project.getSourceHash()).contains("Hash");
+        assertThat(project.getRegistryVersion()).contains("Version");
+        assertThat(project.isImportedFrom("Hash", "Version")).isTrue();
+        assertThat(project.isImportedFrom("Other", "Version")).isFalse();
+        assertThat(project.isImportedFrom("Hash", "Other")).isFalse();
+    }
+
+    @Test
+    void invalidatesSourceWhenDistributionChanges() {
+        project.setSource("Hash", "Version");
+        project.setDistribution(Project.Distribution.PROPRIETARY);
+        assertThat(project.getSourceHash()).isNotEmpty();
+
+        project.setDistribution(Project.Distribution.OPEN_SOURCE);
+
+        assertThat(project.getSourceHash()).isEmpty();
+        assertThat(project.getRegistryVersion()).isEmpty();
+    }
+
     @Test
     void addsDependency() {
         final var first = new Dependency("First", TITLE);
@@ -115,6 +147,66 @@ class ProjectTest {
         assertThat(child.isRoot()).isFalse();
     }
 
+    @Test
+    void determinesStrongestUsageDuringPostProcessing() {
+        final var parent = new Dependency("parent", TITLE);
+        final var other = new Dependency("other", TITLE);
+        final var child = new Dependency("child", TITLE);
+        project.addDependency(parent).addDependency(other).addDependency(child)
+                .addRelationship(parent, child, Relation.Relationship.DYNAMIC_LINK)
+                .addRelationship(other, child, Relation.Relationship.STATIC_LINK)
+                .addRelationship(parent, other, Relation.Relationship.IRRELEVANT);
+        child.updateStrongestUsage(Relation.Relationship.MODIFIED_CODE);
+
+        project.postProcess();
+
+        assertThat(parent.getStrongestUsage()).isEmpty();
+        assertThat(other.getStrongestUsage()).contains(Relation.Relationship.IRRELEVANT);
+        assertThat(child.getStrongestUsage()).contains(Relation.Relationship.STATIC_LINK);
+    }
+
+    @Test
+    void propagatesDeliveryStatusDuringPostProcessing() {
+        final var root = new Dependency("root", TITLE);
+        final var delivered = new Dependency("delivered", TITLE);
+        final var tool = new Dependency("tool", TITLE);
+        final var toolChild = new Dependency("toolChild", TITLE);
+        final var shared = new Dependency("shared", TITLE);
+        project.addDependency(root).addDependency(delivered).addDependency(tool)
+                .addDependency(toolChild).addDependency(shared)
+                .addRelationship(root, delivered, Relation.Relationship.DYNAMIC_LINK)
+                .addRelationship(root, tool, Relation.Relationship.IRRELEVANT)
+                .addRelationship(tool, toolChild, Relation.Relationship.STATIC_LINK)
+                .addRelationship(toolChild, shared, Relation.Relationship.STATIC_LINK)
+                .addRelationship(delivered, shared, Relation.Relationship.INDEPENDENT);
+
+        project.postProcess();
+
+        assertThat(root.isDelivered()).isTrue();
+        assertThat(root.isDevelopment()).isFalse();
+        assertThat(delivered.isDelivered()).isTrue();
+        assertThat(delivered.isDevelopment()).isFalse();
+        assertThat(tool.isDevelopment()).isTrue();
+        assertThat(tool.isDelivered()).isFalse();
+        assertThat(toolChild.isDevelopment()).isTrue();
+        assertThat(toolChild.isDelivered()).isFalse();
+        assertThat(shared.isDevelopment()).isTrue();
+        assertThat(shared.isDelivered()).isTrue();
+    }
+
+    @Test
+    void clearsOutdatedDeliveryStatusDuringPostProcessing() {
+        final var parent = new Dependency("parent", TITLE);
+        final var child = new Dependency("child", TITLE).setDevelopment();
+        project.addDependency(parent).addDependency(child)
+                .addRelationship(parent, child, Relation.Relationship.STATIC_LINK);
+
+        project.postProcess();
+
+        assertThat(child.isDevelopment()).isFalse();
+        assertThat(child.isDelivered()).isTrue();
+    }
+
     @Test
     void countsIssuesDuringPostProcessing() {
         project.addDependency(new Dependency("1", TITLE).setIssueCount(2))
@@ -192,6 +284,17 @@ class ProjectTest {
             assertThat(dependency.getExemption()).isEmpty();
         }
 
+        @Test
+        void invalidatesSource() {
+            project.setSource("Hash", "Version");
+            project.exempt(dependency, RATIONALE);
+            assertThat(project.getSourceHash()).isEmpty();
+
+            project.setSource("Hash", "Version");
+            project.unexempt(dependency);
+            assertThat(project.getSourceHash()).isEmpty();
+        }
+
         @Test
         void exemptsNewAddedDependencies() {
             project.exempt(dependency, RATIONALE);
@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2020-2021, Koninklijke Philips N.V., https://www.philips.com
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.philips.research.bombar.core.domain;
+
+import com.github.packageurl.PackageURL;
+import com.philips.research.bombar.core.PersistentStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ProjectUpdateTest {
+    private static final String KEY = "Key";
+    private static final String OTHER_KEY = "Other";
+    private static final String TITLE = "Title";
+    private static final String LICENSE = "License";
+    private static final String VERSION = "Version";
+
+    private final PersistentStore store = mock(PersistentStore.class);
+    private final Project project = new Project(UUID.randomUUID());
+    private final ProjectUpdate update = new ProjectUpdate(project, store);
+
+    @BeforeEach
+    void beforeEach() {
+        when(store.createDependencies(eq(project), any())).thenAnswer(
+                (a) -> a.<Collection<Dependency>>getArgument(1).stream()
+                        .map(dep -> new Dependency(dep.getKey(), dep.getTitle()).copy(dep))
+                        .collect(Collectors.toList()));
+    }
+
+    @Test
+    void createsNewDependencies() {
+        final var staged = update.stage(KEY, TITLE).setLicense(LICENSE).setVersion(VERSION);
+
+        update.merge();
+
+        verify(store).createDependencies(project, List.of(staged));
+        final var dependency = project.getDependency(KEY).orElseThrow();
+        assertThat(dependency).isNotSameAs(staged);
+        assertThat(update.merged(staged)).isSameAs(dependency);
+        assertThat(dependency.getLicense()).isEqualTo(LICENSE);
+        assertThat(dependency.getVersion()).isEqualTo(VERSION);
+    }
+
+    @Test
+    void reusesDependencyWithSameKey() throws Exception {
+        final var existing = new Dependency(KEY, "Old").setLicense("Old").setIssueCount(13);
+        final var child = new Dependency(OTHER_KEY, "Child");
+        project.addDependency(existing).addDependency(child)
+                .addRelationship(existing, child, Relation.Relationship.STATIC_LINK);
+        final var purl = new PackageURL("pkg:npm/name@1.0");
+        final var staged = update.stage(KEY, TITLE).setLicense(LICENSE).setPurl(purl);
+        update.stage(OTHER_KEY, "Child");
+
+        update.merge();
+
+        verify(store).createDependencies(project, List.of());
+        verify(store, never()).deleteDependencies(anyCollection());
+        assertThat(update.merged(staged)).isSameAs(existing);
+        assertThat(existing.getTitle()).isEqualTo(TITLE);
+        assertThat(existing.getLicense()).isEqualTo(LICENSE);
+        assertThat(existing.getPurl()).contains(purl);
+        assertThat(existing.getIssueCount()).isZero();
+        assertThat(existing.getRelations()).isEmpty();
+        assertThat(child.getUsages()).isEmpty();
+        assertThat(child.isDelivered()).isFalse();
+    }
+
+    @Test
+    void reusesDependencyWithSamePackageUrl() throws Exception {
+        final var purl = new PackageURL("pkg:npm/name@1.0");
+        final var existing = new Dependency(KEY, TITLE).setPurl(purl);
+        project.addDependency(existing);
+        final var staged = update.stage(null, TITLE).setPurl(purl);
+
+        update.merge();
+
+        assertThat(update.merged(staged)).isSameAs(existing);
+        assertThat(project.getDependencies()).containsExactly(existing);
+        assertThat(existing.getKey()).isEqualTo(KEY);
+    }
+
+    @Test
+    void takesImportedKeyOfDependencyWithSamePackageUrl() throws Exception {
+        final var purl = new PackageURL("pkg:npm/name@1.0");
+        final var existing = new Dependency(KEY, TITLE).setPurl(purl);
+        project.addDependency(existing);
+        final var staged = update.stage(OTHER_KEY, TITLE).setPurl(purl);
+
+        update.merge();
+
+        assertThat(update.merged(staged)).isSameAs(existing);
+        assertThat(existing.getKey()).isEqualTo(OTHER_KEY);
+        assertThat(project.getDependency(OTHER_KEY)).contains(existing);
+        assertThat(project.getDependency(KEY)).isEmpty();
+        verify(store, never()).deleteDependencies(anyCollection());
+    }
+
+    @Test
+    void prefersMatchOnKeyOverPackageUrl() throws Exception {
+        final var purl = new PackageURL("pkg:npm/name@1.0");
+        final var existing = new Dependency(KEY, TITLE).setPurl(purl);
+        project.addDependency(existing);
+        final var anonymous = update.stage(null, TITLE).setPurl(purl);
+        final var identified = update.stage(KEY, TITLE).setPurl(purl);
+
+        update.merge();
+
+        assertThat(update.merged(identified)).isSameAs(existing);
+        assertThat(update.merged(anonymous)).isNotSameAs(existing);
+        assertThat(project.getDependencies()).hasSize(2);
+    }
+
+    @Test
+    void deletesObsoleteDependencies() {
+        final var obsolete = new Dependency(OTHER_KEY, "Obsolete");
+        final var existing = new Dependency(KEY, TITLE);
+        project.addDependency(existing).addDependency(obsolete)
+                .addRelationship(existing, obsolete, Relation.Relationship.DYNAMIC_LINK)
+                .addRelationship(obsolete, existing, Relation.Relationship.DYNAMIC_LINK);
+        update.stage(KEY, TITLE);
+
+        update.merge();
+
+        verify(store).deleteDependencies(argThat((Collection<Dependency> deleted) -> List.copyOf(deleted).equals(List.of(obsolete))));
+        assertThat(project.getDependencies()).containsExactly(existing);
+        assertThat(existing.getRelations()).isEmpty();
+        assertThat(existing.getUsages()).isEmpty();
+    }
+
+    @Test
+    void appliesPackageExemptions() {
+        final var pkg = new Package(new PackageRef("package"));
+        project.exempt(new Dependency("Exempted", "Exempted").setPackage(pkg), "Rationale");
+        final var existing = new Dependency(KEY, TITLE).setExemption("Stale");
+        project.addDependency(existing);
+        update.stage(KEY, TITLE);
+        final var staged = update.stage(OTHER_KEY, TITLE).setPackage(pkg);
+
+        update.merge();
+
+        assertThat(existing.getExemption()).isEmpty();
+        assertThat(update.merged(staged).getExemption()).contains("Rationale");
+    }
+
+    @Test
+    void throws_duplicateKey() {
+        update.stage(KEY, TITLE);
+
+        assertThatThrownBy(() -> update.stage(KEY, "Other"))
+                .isInstanceOf(DomainException.class)
+                .hasMessageContaining("duplicate");
+    }
+
+    @Test
+    void throws_unstagedDependency() {
+        assertThatThrownBy(() -> update.merged(new Dependency(KEY, TITLE)))
+                .isInstanceOf(DomainException.class);
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2020-2021, Koninklijke Philips N.V., https://www.philips.com
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.philips.research.bombar.core.domain;
+
+import com.philips.research.bombar.core.ProjectService;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class RecheckQueueTest {
+    private static final UUID PROJECT_ID = UUID.randomUUID();
+    private static final UUID OTHER_ID = UUID.randomUUID();
+    private static final UUID THIRD_ID = UUID.randomUUID();
+    private static final Duration DELAY = Duration.ofSeconds(3);
+
+    private final ProjectService projectService = mock(ProjectService.class);
+    private final ScheduledExecutorService executor = mock(ScheduledExecutorService.class);
+    private final RecheckQueue queue = new RecheckQueue(projectService, executor, DELAY, 2);
+
+    @Test
+    void checksProjectsAfterDelay() {
+        queue.schedule(List.of(PROJECT_ID));
+
+        verify(projectService, never()).checkLicenses(any());
+        scheduled().run();
+
+        verify(projectService).checkLicenses(List.of(PROJECT_ID));
+    }
+
+    @Test
+    void ignoresEmptyRequest() {
+        queue.schedule(List.of());
+
+        verify(executor, never()).schedule(any(Runnable.class), anyLong(), any());
+    }
+
+    @Test
+    void coalescesRepeatedRequests() {
+        queue.schedule(List.of(PROJECT_ID));
+        queue.schedule(List.of(OTHER_ID, PROJECT_ID));
+        queue.schedule(List.of(PROJECT_ID));
+
+        scheduled().run();
+
+        verify(projectService).checkLicenses(List.of(PROJECT_ID, OTHER_ID));
+        verify(executor, never()).execute(any());
+    }
+
+    @Test
+    void checksProjectsInBatches() {
+        queue.schedule(List.of(PROJECT_ID, OTHER_ID, THIRD_ID));
+
+        scheduled().run();
+        verify(projectService).checkLicenses(List.of(PROJECT_ID, OTHER_ID));
+        final var next = ArgumentCaptor.forClass(Runnable.class);
+        verify(executor).execute(next.capture());
+        next.getValue().run();
+
+        verify(projectService).checkLicenses(List.of(THIRD_ID));
+    }
+
+    @Test
+    void schedulesAgainAfterProcessing() {
+        queue.schedule(List.of(PROJECT_ID));
+        scheduled().run();
+
+        queue.schedule(List.of(PROJECT_ID));
+
+        verify(executor, times(2)).schedule(any(Runnable.class), eq(DELAY.toMillis()), eq(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void continuesAfterFailedCheck() {
+        doThrow(new IllegalStateException("Test")).when(projectService).checkLicenses(List.of(PROJECT_ID));
+        queue.schedule(List.of(PROJECT_ID));
+        scheduled().run();
+
+        queue.schedule(List.of(OTHER_ID));
+        final var next = ArgumentCaptor.forClass(Runnable.class);
+        verify(executor, times(2)).schedule(next.capture(), anyLong(), any());
+        next.getValue().run();
+
+        verify(projectService).checkLicenses(List.of(OTHER_ID));
+    }
+
+    private Runnable scheduled() {
+        final var runnable = ArgumentCaptor.forClass(Runnable.class);
+        verify(executor).schedule(runnable.capture(), eq(DELAY.toMillis()), eq(TimeUnit.MILLISECONDS));
+        return runnable.getValue();
+    }
+}
@@ -0,0 +1,22 @@
+/*
+ * Copyright (c) 2020-2021, Koninklijke Philips N.V., https://www.philips.com
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.philips.research.bombar.core.domain;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class Sha256Test {
+    @Test
+    void hashesText() {
+        assertThat(Sha256.of("abc")).isEqualTo("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad");
+    }
+
+    @Test
+    void encodesBytesAsHex() {
+        assertThat(Sha256.hex(new byte[]{0x00, 0x7f, (byte) 0x80, (byte) 0xff})).isEqualTo("007f80ff");
+    }
+}
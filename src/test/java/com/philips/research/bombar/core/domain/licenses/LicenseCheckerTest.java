@@ -12,7 +12,11 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.Random;
 import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -238,6 +242,71 @@ class LicenseCheckerTest {
         assertThat(child1.getIssueCount()).isEqualTo(1);
     }
 
+    @Test
+    void checksDeepDependencyChains() {
+        var last = child2;
+        for (var i = 0; i < 10_000; i++) {
+            final var next = new Dependency("Chain" + i, "Chain").setLicense(LICENSE);
+            project.addDependency(next).addRelationship(last, next, Relation.Relationship.STATIC_LINK);
+            last = next;
+        }
+        last.setLicense("Unknown");
+        project.addRelationship(parent, child1, Relation.Relationship.STATIC_LINK);
+        project.addRelationship(child1, child2, Relation.Relationship.STATIC_LINK);
+
+        final var violations = checker.violations();
+
+        assertThat(violations).hasSize(1);
+        assertThat(last.getIssueCount()).isEqualTo(1);
+        assertThat(child2.getIssueCount()).isZero();
+    }
+
+    @Test
+    void countsIssuesPerDependency() {
+        project.addRelationship(parent, child1, Relation.Relationship.STATIC_LINK);
+        project.addRelationship(parent, child2, Relation.Relationship.STATIC_LINK);
+        parent.setLicense("Unknown");
+        child1.setLicense(VIRAL);
+        child2.setLicense(INCOMPATIBLE);
+
+        final var violations = checker.violations();
+
+        assertThat(violations).hasSize(3);
+        assertThat(parent.getIssueCount()).isEqualTo(3);
+        assertThat(parent.getViolations()).containsExactlyElementsOf(violations.stream()
+                .map(LicenseViolation::getMessage)
+                .collect(Collectors.toList()));
+        assertThat(checker.violations(parent)).hasSize(3);
+        assertThat(checker.violations(child1)).isEmpty();
+    }
+
+    @Test
+    void checksLargeProjectsInParallel() {
+        final var licenses = new String[]{LICENSE, OTHER, VIRAL, VIRAL_RELATION, INCOMPATIBLE, "Unknown", "", LICENSE + " OR " + VIRAL};
+        final var relationships = Relation.Relationship.values();
+        final var random = new Random(42);
+        final var dependencies = new ArrayList<Dependency>();
+        for (var i = 0; i < 2 * LicenseChecker.PARALLEL_THRESHOLD; i++) {
+            final var dependency = new Dependency("Dep" + i, "Dependency").setLicense(licenses[random.nextInt(licenses.length)]);
+            project.addDependency(dependency);
+            if (i > 10) {
+                for (var j = 0; j < 3; j++) {
+                    final var source = dependencies.get(random.nextInt(dependencies.size()));
+                    project.addRelationship(source, dependency, relationships[random.nextInt(relationships.length)]);
+                }
+            }
+            dependencies.add(dependency);
+        }
+        final var sequential = checker.violations().stream().map(Object::toString).collect(Collectors.toList());
+        final var counts = dependencies.stream().map(Dependency::getIssueCount).collect(Collectors.toList());
+
+        final var parallel = new LicenseChecker(REGISTRY, project, new ForkJoinPool(4)).violations();
+
+        assertThat(sequential).isNotEmpty();
+        assertThat(parallel.stream().map(Object::toString)).containsExactlyElementsOf(sequential);
+        assertThat(dependencies.stream().map(Dependency::getIssueCount)).containsExactlyElementsOf(counts);
+    }
+
     @Test
     void skipsPackagesBehindIrrelevantRelationship() {
         project.addRelationship(parent, child1, Relation.Relationship.IRRELEVANT);
@@ -5,9 +5,14 @@
 
 package com.philips.research.bombar.core.domain.licenses;
 
+import com.philips.research.bombar.core.domain.Project.Distribution;
+import com.philips.research.bombar.core.domain.Relation.Relationship;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
@@ -69,6 +74,41 @@ class LicenseRegistryTest {
         assertThat(type.requiresGiven()).contains(termA, termB);
     }
 
+    @Test
+    void versionsDefinitions() {
+        final var other = new LicenseRegistry();
+        other.term(TAG_A, "A");
+        other.term(TAG_B, "B");
+        assertThat(registry.getVersion()).isEqualTo(other.getVersion());
+
+        registry.license(LICENSE).requires(TAG_A);
+        other.license(LICENSE).requires(TAG_B);
+
+        assertThat(registry.getVersion()).isNotEqualTo(other.getVersion());
+    }
+
+    @Test
+    void versionsConditionsOfDefinitions() {
+        final var other = new LicenseRegistry();
+        other.term(TAG_A, "A");
+        other.term(TAG_B, "B");
+
+        registry.license(LICENSE).demands(TAG_A, Condition.NO);
+        other.license(LICENSE).demands(TAG_A, Condition.YES);
+
+        assertThat(registry.getVersion()).isNotEqualTo(other.getVersion());
+    }
+
+    @Test
+    void versionsBySha256Fingerprint() {
+        final var version = registry.getVersion();
+
+        registry.license(LICENSE);
+
+        assertThat(version).hasSize(64);
+        assertThat(registry.getVersion()).hasSize(64).isNotEqualTo(version);
+    }
+
     private enum Condition {NO, YES}
 
     @Nested
@@ -158,4 +198,73 @@ class LicenseRegistryTest {
             assertThat(type.unmetDemands(other)).isNotEmpty();
         }
     }
+
+    @Nested
+    class FrozenRegistry {
+        private static final String OTHER = "Other";
+        private static final String VIRAL = "Viral";
+
+        @BeforeEach
+        void beforeEach() {
+            final var viral = registry.license(VIRAL).copyleft(Relationship.STATIC_LINK);
+            registry.license(LICENSE).accepts(TAG_A);
+            registry.license(OTHER).demands(TAG_A, Distribution.SAAS).accepts(viral);
+            registry.freeze();
+        }
+
+        @Test
+        void freezesDefinitions() {
+            assertThat(registry.isFrozen()).isTrue();
+            assertThatThrownBy(() -> registry.license("New"))
+                    .isInstanceOf(IllegalStateException.class);
+            assertThatThrownBy(() -> registry.term("New", "New"))
+                    .isInstanceOf(IllegalStateException.class);
+        }
+
+        @Test
+        void freezesImplicitlyWhenUsed() {
+            final var other = new LicenseRegistry();
+            other.license(LICENSE);
+            final var type = other.licenseType(LICENSE);
+
+            other.unmetDemands(List.of(type), type, Distribution.SAAS, Relationship.STATIC_LINK);
+
+            assertThat(other.isFrozen()).isTrue();
+        }
+
+        @Test
+        void findsUnmetDemandsForCondition() {
+            final var license = registry.licenseType(LICENSE);
+            final var other = registry.licenseType(OTHER);
+            final var viral = registry.licenseType(VIRAL);
+
+            assertThat(registry.unmetDemands(List.of(viral), other, Distribution.SAAS, Relationship.INDEPENDENT)).containsExactly(termA);
+            assertThat(registry.unmetDemands(List.of(viral), other, Distribution.INTERNAL, Relationship.INDEPENDENT)).isEmpty();
+            assertThat(registry.unmetDemands(List.of(license), other, Distribution.SAAS, Relationship.INDEPENDENT)).isEmpty();
+            assertThat(registry.unmetDemands(List.of(license), viral, Distribution.SAAS, Relationship.STATIC_LINK)).hasSize(1);
+            assertThat(registry.unmetDemands(List.of(license), viral, Distribution.SAAS, Relationship.DYNAMIC_LINK)).isEmpty();
+            assertThat(registry.unmetDemands(List.of(other), viral, Distribution.SAAS, Relationship.STATIC_LINK)).isEmpty();
+        }
+
+        @Test
+        void findsDemandsUnmetByAllSourceLicenses() {
+            final var license = registry.licenseType(LICENSE);
+            final var other = registry.licenseType(OTHER);
+            final var viral = registry.licenseType(VIRAL);
+
+            assertThat(registry.unmetDemands(List.of(), other, Distribution.SAAS, Relationship.INDEPENDENT)).containsExactly(termA);
+            assertThat(registry.unmetDemands(List.of(viral, license), other, Distribution.SAAS, Relationship.INDEPENDENT)).isEmpty();
+            assertThat(registry.unmetDemands(List.of(license, other), viral, Distribution.SAAS, Relationship.STATIC_LINK)).isEmpty();
+            assertThat(registry.unmetDemands(List.of(license, viral), viral, Distribution.SAAS, Relationship.STATIC_LINK)).isEmpty();
+        }
+
+        @Test
+        void throws_unregisteredLicense() {
+            final var license = registry.licenseType(LICENSE);
+            final var unknown = new LicenseType("Unknown");
+
+            assertThatThrownBy(() -> registry.unmetDemands(List.of(license), unknown, Distribution.SAAS, Relationship.INDEPENDENT))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
 }
@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2020-2021, Koninklijke Philips N.V., https://www.philips.com
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.philips.research.bombar.core.domain.licenses;
+
+import com.philips.research.bombar.core.domain.Project.Distribution;
+import com.philips.research.bombar.core.domain.Relation.Relationship;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Measures the term algebra of the licenses in the default registry.
+ * Run from the test classpath using the main method, or using "org.openjdk.jmh.Main LicenseTypeBenchmark".
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LicenseTypeBenchmark {
+    private List<LicenseType> licenses = List.of();
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(LicenseTypeBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+
+    @Setup
+    public void setup() {
+        licenses = Licenses.REGISTRY.getLicenses().stream()
+                .map(Licenses.REGISTRY::licenseType)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public void unmetDemandsOfAllLicensePairs(Blackhole blackhole) {
+        for (var source : licenses) {
+            for (var target : licenses) {
+                blackhole.consume(source.unmetDemands(target, Distribution.SAAS, Relationship.STATIC_LINK));
+            }
+        }
+    }
+
+    @Benchmark
+    public void requiredTermsOfAllLicenses(Blackhole blackhole) {
+        for (var license : licenses) {
+            blackhole.consume(license.requiresGiven(Distribution.PROPRIETARY, Relationship.DYNAMIC_LINK));
+        }
+    }
+
+    @Benchmark
+    public CompatibilityMatrix compileMatrix() {
+        return new CompatibilityMatrix(licenses);
+    }
+}
@@ -91,6 +91,46 @@ class LicenseTypeTest {
         assertThat(type.demandsGiven(Condition.YES)).containsExactlyInAnyOrder(TERM_A, TERM_B);
     }
 
+    @Test
+    void tracksAncestry() {
+        final var parent = new LicenseType("Parent");
+        final var child = new LicenseType("Child", parent);
+        final var other = new LicenseType("Other");
+
+        assertThat(child.hasAncestor(child)).isTrue();
+        assertThat(child.hasAncestor(parent)).isTrue();
+        assertThat(parent.hasAncestor(child)).isFalse();
+        assertThat(child.hasAncestor(other)).isFalse();
+    }
+
+    @Test
+    void listsDemandsAsIds() {
+        final var type = new LicenseType(NAME)
+                .demand(TERM_A)
+                .demand(TERM_B, Condition.THRESHOLD);
+
+        final var ids = type.demandIds(Condition.NO);
+
+        assertThat(ids.get(TERM_A.getId())).isTrue();
+        assertThat(ids.get(TERM_B.getId())).isFalse();
+        assertThat(type.demandsOf(ids, Condition.NO)).containsExactly(TERM_A);
+    }
+
+    @Test
+    void tracksAcceptedIdsOfAncestors() {
+        final var license = new LicenseType("License");
+        final var derived = new LicenseType("Derived", license);
+        final var parent = new LicenseType("Parent").accept(TERM_A);
+        final var child = new LicenseType("Child", parent).accept(Term.from(derived));
+
+        final var ids = child.acceptedIds();
+
+        assertThat(ids.get(TERM_A.getId())).isTrue();
+        assertThat(ids.get(derived.getId())).isTrue();
+        assertThat(ids.get(license.getId())).isTrue();
+        assertThat(ids.get(TERM_B.getId())).isFalse();
+    }
+
     @Test
     void tracksAcceptedTerms() {
         final var type = new LicenseType(NAME)
@@ -102,12 +102,29 @@ public class ObligationsAnalyzerTest {
         project.addDependency(parent);
         project.addDependency(child);
         project.addRelationship(parent, child, Relation.Relationship.INDEPENDENT);
+        project.postProcess();
 
         final var obligations = analyzer.findObligations();
 
         assertThat(obligations).isEmpty();
     }
 
+    @Test
+    void conditionalObligationByStrongestRelationship() {
+        registry.license(LICENSE).requires(OBLIGATION, Relation.Relationship.MODIFIED_CODE);
+        final var parent = new Dependency("PARENT", TITLE);
+        final var other = new Dependency("OTHER", TITLE);
+        final var child = new Dependency("CHILD", TITLE).setLicense(LICENSE);
+        project.addDependency(parent).addDependency(other).addDependency(child);
+        project.addRelationship(parent, child, Relation.Relationship.INDEPENDENT);
+        project.addRelationship(other, child, Relation.Relationship.MODIFIED_CODE);
+        project.postProcess();
+
+        final var obligations = analyzer.findObligations();
+
+        assertThat(obligations).isEqualTo(Map.of(DESCRIPTION, Set.of(child)));
+    }
+
     @Test
     void sameObligationMultipleDependencies() {
         registry.license(LICENSE).requires(OBLIGATION);
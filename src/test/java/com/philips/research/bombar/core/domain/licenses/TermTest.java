@@ -33,6 +33,28 @@ class TermTest {
         assertThat(term.getDescription()).contains(LICENSE.getIdentifier()).isNotEqualTo(LICENSE.getIdentifier());
     }
 
+    @Test
+    void sharesIdForEqualKeys() {
+        final var term = new Term(TAG, DESCRIPTION);
+        final var same = new Term(TAG, "Other");
+        final var other = new Term(NUMBER, DESCRIPTION);
+
+        assertThat(same.getId()).isEqualTo(term.getId());
+        assertThat(other.getId()).isNotEqualTo(term.getId());
+        assertThat(Term.from(LICENSE).getId()).isEqualTo(LICENSE.getId());
+    }
+
+    @Test
+    void coversLicenseAncestors() {
+        final var child = new LicenseType("Child", LICENSE);
+
+        final var coverage = Term.from(child).coverage();
+
+        assertThat(coverage.get(child.getId())).isTrue();
+        assertThat(coverage.get(LICENSE.getId())).isTrue();
+        assertThat(coverage.cardinality()).isEqualTo(2);
+    }
+
     @Test
     void matchesOnKeyEquality() {
         final var term = new Term(TAG, DESCRIPTION);
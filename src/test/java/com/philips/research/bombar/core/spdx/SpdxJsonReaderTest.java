@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2020-2021, Koninklijke Philips N.V., https://www.philips.com
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.philips.research.bombar.core.spdx;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.function.BiConsumer;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+class SpdxJsonReaderTest {
+    private final BiConsumer<String, String> callback = mock(Callback.class);
+    private final SpdxJsonReader reader = new SpdxJsonReader(callback);
+
+    private InputStream jsonStream(String json) {
+        return new ByteArrayInputStream(json.replace('\'', '"').getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void throws_streamIssue() {
+        final var broken = new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw new IOException("Broken stream");
+            }
+        };
+
+        assertThatThrownBy(() -> reader.parse(broken))
+                .isInstanceOf(SpdxException.class)
+                .hasMessageContaining("reading");
+    }
+
+    @Test
+    void throws_notAJsonObject() {
+        assertThatThrownBy(() -> reader.parse(jsonStream("['array']")))
+                .isInstanceOf(SpdxException.class)
+                .hasMessageContaining("JSON object");
+    }
+
+    @Test
+    void throws_truncatedDocument() {
+        assertThatThrownBy(() -> reader.parse(jsonStream("{'packages': [{'name': 'Name'}")))
+                .isInstanceOf(SpdxException.class);
+    }
+
+    @Test
+    void readsDocumentInformation() {
+        reader.parse(jsonStream("{'name': 'Title', 'creationInfo': {'creators': ['Tool: test'], 'created': '2010-01-29T18:30:22Z'}}"));
+
+        verify(callback).accept("DocumentName", "Title");
+        verify(callback).accept("Created", "2010-01-29T18:30:22Z");
+        verifyNoMoreInteractions(callback);
+    }
+
+    @Test
+    void startsPackageWithName() {
+        reader.parse(jsonStream("{'packages': [{'SPDXID': 'SPDXRef-1', 'versionInfo': '1.0', 'name': 'Name', 'filesAnalyzed': false}]}"));
+
+        final InOrder inOrder = inOrder(callback);
+        inOrder.verify(callback).accept("PackageName", "Name");
+        inOrder.verify(callback).accept("SPDXID", "SPDXRef-1");
+        inOrder.verify(callback).accept("PackageVersion", "1.0");
+        verifyNoMoreInteractions(callback);
+    }
+
+    @Test
+    void readsPackageFields() {
+        reader.parse(jsonStream("{'packages': [{'name': 'Name', 'homepage': 'https://example.com', "
+                + "'supplier': 'Organization: Vendor', 'summary': 'Summary', "
+                + "'licenseConcluded': 'MIT', 'licenseDeclared': 'Apache-2.0'}]}"));
+
+        verify(callback).accept("PackageHomePage", "https://example.com");
+        verify(callback).accept("PackageSupplier", "Organization: Vendor");
+        verify(callback).accept("PackageSummary", "Summary");
+        verify(callback).accept("PackageLicenseConcluded", "MIT");
+        verify(callback).accept("PackageLicenseDeclared", "Apache-2.0");
+    }
+
+    @Test
+    void readsExternalReferences() {
+        reader.parse(jsonStream("{'packages': [{'name': 'Name', 'externalRefs': [{'referenceCategory': 'PACKAGE_MANAGER', "
+                + "'referenceType': 'purl', 'referenceLocator': 'pkg:maven/group/name@1.0'}]}]}"));
+
+        verify(callback).accept("ExternalRef", "PACKAGE-MANAGER purl pkg:maven/group/name@1.0");
+    }
+
+    @Test
+    void readsRelationships() {
+        reader.parse(jsonStream("{'relationships': [{'spdxElementId': 'a', 'relationshipType': 'DEPENDS_ON', "
+                + "'relatedSpdxElement': 'b', 'comment': 'Ignored'}, {'spdxElementId': 'incomplete'}]}"));
+
+        verify(callback).accept("Relationship", "a DEPENDS_ON b");
+        verifyNoMoreInteractions(callback);
+    }
+
+    @Test
+    void readsCustomLicenses() {
+        reader.parse(jsonStream("{'hasExtractedLicensingInfos': [{'licenseId': 'LicenseRef-Custom', "
+                + "'extractedText': 'Text', 'name': 'Name'}]}"));
+
+        verify(callback).accept("LicenseID", "LicenseRef-Custom");
+        verify(callback).accept("LicenseName", "Name");
+    }
+
+    @Test
+    void skipsUnknownStructures() {
+        reader.parse(jsonStream("{'files': [{'fileName': 'x', 'SPDXID': 'file'}], 'unknown': {'name': 'Nested'}, 'name': 'Title'}"));
+
+        verify(callback).accept("DocumentName", "Title");
+        verifyNoMoreInteractions(callback);
+    }
+
+    @Test
+    void convertsNoAssertionAndNoneValues() {
+        reader.parse(jsonStream("{'packages': [{'name': 'Name', 'licenseConcluded': 'NOASSERTION', 'licenseDeclared': 'NONE'}]}"));
+
+        verify(callback, never()).accept(eq("PackageLicenseConcluded"), any());
+        verify(callback).accept("PackageLicenseDeclared", "");
+    }
+
+    interface Callback extends BiConsumer<String, String> {
+    }
+}
@@ -7,6 +7,7 @@ package com.philips.research.bombar.core.spdx;
 
 import com.github.packageurl.MalformedPackageURLException;
 import com.github.packageurl.PackageURL;
+import com.philips.research.bombar.core.BusinessException;
 import com.philips.research.bombar.core.PersistentStore;
 import com.philips.research.bombar.core.domain.Package;
 import com.philips.research.bombar.core.domain.*;
@@ -17,15 +18,18 @@ import org.junit.jupiter.api.Test;
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
-import java.util.Optional;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
-import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 
 class SpdxParserTest {
     private static final UUID PROJECT_ID = UUID.randomUUID();
@@ -51,11 +55,10 @@ class SpdxParserTest {
 
     @BeforeEach
     void beforeEach() {
-        //noinspection unchecked
-        when(store.getPackageDefinition(REFERENCE)).thenReturn(Optional.empty(), Optional.of(pkg));
-        when(store.createPackageDefinition(REFERENCE)).thenReturn(pkg);
-        when(store.createDependency(eq(project), any(), any())).thenAnswer(
-                (a) -> new Dependency(a.getArgument(1), a.getArgument(2)));
+        when(store.getPackageDefinitions(any())).thenReturn(List.of());
+        when(store.createPackageDefinitions(List.of(REFERENCE))).thenReturn(List.of(pkg));
+        when(store.createDependencies(eq(project), any())).thenAnswer(
+                (a) -> new ArrayList<>(a.<Collection<Dependency>>getArgument(1)));
     }
 
     @Test
@@ -189,6 +192,66 @@ class SpdxParserTest {
         assertThat(pkg.getDescription()).contains("Summary");
     }
 
+    @Test
+    void resolvesPackagesInBulk() {
+        final var existing = new Package(new PackageRef("maven/namespace/other"));
+        when(store.getPackageDefinitions(any())).thenReturn(List.of(existing));
+
+        parser.parse(spdxStream(
+                "PackageName: First",
+                "SPDXID: 1",
+                "ExternalRef: PACKAGE-MANAGER purl " + PURL,
+                "PackageName: Second",
+                "SPDXID: 2",
+                "ExternalRef: PACKAGE-MANAGER purl pkg:maven/namespace/name@2.0",
+                "PackageName: Third",
+                "SPDXID: 3",
+                "ExternalRef: PACKAGE-MANAGER purl pkg:maven/namespace/other@1.0"));
+
+        verify(store).getPackageDefinitions(List.of(REFERENCE, existing.getReference()));
+        verify(store).createPackageDefinitions(List.of(REFERENCE));
+        verify(store, never()).getPackageDefinition(any());
+        assertThat(project.getDependency("1").orElseThrow().getPackage()).contains(pkg);
+        assertThat(project.getDependency("2").orElseThrow().getPackage()).contains(pkg);
+        assertThat(project.getDependency("3").orElseThrow().getPackage()).contains(existing);
+    }
+
+    @Test
+    void appliesPackageExemptions() {
+        project.exempt(new Dependency("old", "Old").setPackage(pkg), "Rationale");
+
+        parser.parse(spdxStream(
+                "PackageName: " + TITLE,
+                "SPDXID: package",
+                "ExternalRef: PACKAGE-MANAGER purl " + PURL));
+
+        assertThat(project.getDependency("package").orElseThrow().getExemption()).contains("Rationale");
+    }
+
+    @Test
+    void throws_duplicatePackageIdentifier() {
+        assertThatThrownBy(() -> parser.parse(spdxStream(
+                "PackageName: First",
+                "SPDXID: package",
+                "PackageName: Second",
+                "SPDXID: package")))
+                .isInstanceOf(BusinessException.class)
+                .hasMessageContaining("duplicate");
+    }
+
+    @Test
+    void parsesJsonDocument() {
+        parser.parse(new ByteArrayInputStream(("\uFEFF \n{\"name\": \"" + TITLE + "\", \"packages\": [{\"SPDXID\": \"package\", "
+                + "\"name\": \"" + TITLE + "\", \"licenseConcluded\": \"" + LICENSE + "\"}], \"relationships\": [{\"spdxElementId\": "
+                + "\"package\", \"relationshipType\": \"DEPENDS_ON\", \"relatedSpdxElement\": \"package\"}]}").getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(project.getTitle()).isEqualTo(TITLE);
+        final var dependency = project.getDependency("package").orElseThrow();
+        assertThat(dependency.getTitle()).isEqualTo(TITLE);
+        assertThat(dependency.getLicense()).isEqualTo(LICENSE);
+        assertThat(dependency.getRelations()).hasSize(1);
+    }
+
     private InputStream spdxStream(String... lines) {
         final var string = String.join("\n", lines);
         return new ByteArrayInputStream(string.getBytes());
@@ -9,6 +9,8 @@ import org.junit.jupiter.api.Test;
 
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.function.BiConsumer;
 
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -23,7 +25,7 @@ class TagValueParserTest {
 
     private InputStream lineStream(String... lines) {
         final var string = String.join("\n", lines);
-        return new ByteArrayInputStream(string.getBytes());
+        return new ByteArrayInputStream(string.getBytes(StandardCharsets.UTF_8));
     }
 
     @Test
@@ -90,6 +92,63 @@ class TagValueParserTest {
         verify(callback).accept(TAG, VALUE);
     }
 
+    @Test
+    void mergesDelimitedLinesAcrossReadChunks() {
+        final var text = "x".repeat(100_000);
+        final var stream = lineStream("Long: <text>" + text, text + "</text>");
+
+        parser.parse(stream);
+
+        verify(callback).accept("Long", text + '\n' + text);
+    }
+
+    @Test
+    void acceptsWindowsLineEndings() {
+        final var stream = new ByteArrayInputStream((TAG_VALUE + "\r\n" + "Multi: <text>First\r\nSecond</text>\r\n").getBytes());
+
+        parser.parse(stream);
+
+        verify(callback).accept(TAG, VALUE);
+        verify(callback).accept("Multi", "First\nSecond");
+    }
+
+    @Test
+    void trimsTagAndLeadingValueWhitespace() {
+        final var stream = lineStream(" " + TAG + " :  \t" + VALUE + " ");
+
+        parser.parse(stream);
+
+        verify(callback).accept(TAG, VALUE + " ");
+    }
+
+    @Test
+    void decodesUtf8Values() {
+        final var stream = lineStream(TAG + ": Caf\u00e9 \u2603");
+
+        parser.parse(stream);
+
+        verify(callback).accept(TAG, "Caf\u00e9 \u2603");
+    }
+
+    @Test
+    void parsesByteBuffer() {
+        final var buffer = ByteBuffer.wrap((TAG_VALUE + "\nOther: <text>Text</text>").getBytes(StandardCharsets.UTF_8));
+
+        parser.parseBuffer(buffer);
+
+        verify(callback).accept(TAG, VALUE);
+        verify(callback).accept("Other", "Text");
+    }
+
+    @Test
+    void throws_nonTagValueLineInByteBuffer() {
+        final var buffer = ByteBuffer.wrap((TAG_VALUE + "\nNot a proper line").getBytes(StandardCharsets.UTF_8));
+
+        assertThatThrownBy(() -> parser.parseBuffer(buffer))
+                .isInstanceOf(SpdxException.class)
+                .hasMessageContaining("Line 2");
+    }
+
     @Test
     void convertsNoAssertionValue() {
         final var stream = lineStream("tag: NOASSERTION");
@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2020-2021, Koninklijke Philips N.V., https://www.philips.com
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.philips.research.bombar.persistence;
+
+import com.philips.research.bombar.Application;
+import com.philips.research.bombar.core.domain.PackageRef;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures typeahead searches for packages in the (in-memory) test database.
+ * Run from the test classpath using the main method, or using "org.openjdk.jmh.Main PackageSearchBenchmark".
+ * Larger sets of packages (e.g. "-p packages=1000000") need a file database that is kept between runs, by passing
+ * "-Dspring.datasource.url=jdbc:h2:file:..." and "-Dspring.jpa.hibernate.ddl-auto=update" as JVM arguments.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PackageSearchBenchmark {
+    private static final int BATCH = 1_000;
+    private static final String[] SYLLABLES = {"lang", "com", "mons", "core", "util", "ja", "son", "web", "log", "test", "io", "net"};
+
+    private static final String[] FRAGMENTS = {"la", "lang", "mons-la", "ngut"};
+
+    @Param("100000")
+    private int packages;
+
+    @SuppressWarnings("NotNullFieldNotInitialized")
+    private ConfigurableApplicationContext context;
+    @SuppressWarnings("NotNullFieldNotInitialized")
+    private PersistentDatabase database;
+    @SuppressWarnings("NotNullFieldNotInitialized")
+    private PackageDefinitionRepository repository;
+    @SuppressWarnings("NotNullFieldNotInitialized")
+    private TransactionTemplate transaction;
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PackageSearchBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+
+    @Setup
+    public void setup() {
+        context = new SpringApplicationBuilder(Application.class)
+                .web(WebApplicationType.NONE)
+                .run();
+        database = context.getBean(PersistentDatabase.class);
+        repository = context.getBean(PackageDefinitionRepository.class);
+        transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        final var random = new Random(42);
+        if (repository.count() >= packages) {
+            return;
+        }
+        for (var i = 0; i < packages; i += BATCH) {
+            final var references = new ArrayList<PackageRef>();
+            for (var j = i; j < i + BATCH; j++) {
+                references.add(new PackageRef("maven/org." + word(random) + "/" + word(random) + "-" + word(random) + j));
+            }
+            transaction.executeWithoutResult(status -> database.createPackageDefinitions(references));
+        }
+    }
+
+    private String word(Random random) {
+        final var word = new StringBuilder();
+        for (var i = random.nextInt(3); i >= 0; i--) {
+            word.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+        }
+        return word.toString();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(4)
+    public void searchIndexedTerms(Blackhole blackhole) {
+        for (var fragment : FRAGMENTS) {
+            blackhole.consume(transaction.execute(status -> database.findPackageDefinitions(fragment)));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(4)
+    public void searchFullScan(Blackhole blackhole) {
+        for (var fragment : FRAGMENTS) {
+            blackhole.consume(transaction.execute(status -> repository.findFirst50BySearchContainingIgnoreCaseOrderByReference(fragment)));
+        }
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2020-2021, Koninklijke Philips N.V., https://www.philips.com
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.philips.research.bombar.persistence;
+
+import com.philips.research.bombar.Application;
+import com.philips.research.bombar.core.PersistentStore;
+import com.philips.research.bombar.core.domain.Dependency;
+import com.philips.research.bombar.core.domain.Package;
+import com.philips.research.bombar.core.domain.PackageRef;
+import com.philips.research.bombar.core.domain.ProjectUpdate;
+import com.philips.research.bombar.core.domain.Relation;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Measures persisting the imported dependency graph of a large project in the (in-memory) test database.
+ * Run from the test classpath using the main method, or using "org.openjdk.jmh.Main PersistentDatabaseBenchmark".
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PersistentDatabaseBenchmark {
+    private static final int DEPENDENCIES = 20_000;
+    private static final int PACKAGES = 2_000;
+    private static final int PARENTS = 3;
+
+    @SuppressWarnings("NotNullFieldNotInitialized")
+    private ConfigurableApplicationContext context;
+    @SuppressWarnings("NotNullFieldNotInitialized")
+    private PersistentStore store;
+    @SuppressWarnings("NotNullFieldNotInitialized")
+    private TransactionTemplate transaction;
+    private List<Package> packages = List.of();
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PersistentDatabaseBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+
+    @Setup
+    public void setup() {
+        context = new SpringApplicationBuilder(Application.class)
+                .web(WebApplicationType.NONE)
+                .run();
+        store = context.getBean(PersistentStore.class);
+        transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        final var references = IntStream.range(0, PACKAGES)
+                .mapToObj(i -> new PackageRef(URI.create("pkg:maven/group/package" + i)))
+                .collect(Collectors.toList());
+        //noinspection ConstantConditions
+        packages = transaction.execute(status -> store.createPackageDefinitions(references));
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void importProject() {
+        transaction.executeWithoutResult(status -> {
+            final var random = new Random(42);
+            final var project = store.createProject();
+            final var update = new ProjectUpdate(project, store);
+            final var staged = new ArrayList<Dependency>();
+            for (var i = 0; i < DEPENDENCIES; i++) {
+                staged.add(update.stage("Dep" + i, "Dependency " + i)
+                        .setPackage(packages.get(random.nextInt(PACKAGES)))
+                        .setVersion("1." + i)
+                        .setLicense("MIT"));
+            }
+            update.merge();
+            for (var i = 1; i < DEPENDENCIES; i++) {
+                final var child = update.merged(staged.get(i));
+                for (var p = 0; p < PARENTS; p++) {
+                    final var parent = update.merged(staged.get(random.nextInt(i)));
+                    project.addRelationship(parent, child, Relation.Relationship.values()[random.nextInt(5)]);
+                }
+            }
+            project.postProcess();
+        });
+    }
+}
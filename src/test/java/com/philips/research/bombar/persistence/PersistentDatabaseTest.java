@@ -5,8 +5,16 @@
 
 package com.philips.research.bombar.persistence;
 
+import com.github.packageurl.MalformedPackageURLException;
+import com.github.packageurl.PackageURL;
+import com.philips.research.bombar.core.domain.Dependency;
+import com.philips.research.bombar.core.domain.DependencySummary;
+import com.philips.research.bombar.core.domain.Package;
 import com.philips.research.bombar.core.domain.PackageRef;
+import com.philips.research.bombar.core.domain.Project;
+import com.philips.research.bombar.core.domain.ProjectUpdate;
 import com.philips.research.bombar.core.domain.Relation;
+import org.hibernate.SessionFactory;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -14,10 +22,18 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import pl.tlinkowski.annotation.basic.NullOr;
 
+import javax.persistence.PersistenceException;
+import java.math.BigInteger;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 @ExtendWith(SpringExtension.class)
 @ComponentScan(basePackageClasses = {PersistentDatabase.class})
@@ -26,6 +42,7 @@ class PersistentDatabaseTest {
     private static final PackageRef REFERENCE = new PackageRef("namespace/name");
     private static final String TITLE = "Title";
     private static final String DEPENDENCY_ID = "DependencyId";
+    private static final PackageURL PURL = purlOf("pkg:maven/namespace/name@1.0");
 
     @Autowired
     private PersistentDatabase database;
@@ -43,6 +60,26 @@ class PersistentDatabaseTest {
         assertThat(stored).contains(pkg);
     }
 
+    @Test
+    void storesPackageDefinitionsInBulk() {
+        final var other = new PackageRef("namespace/other");
+        final var created = database.createPackageDefinitions(List.of(REFERENCE, other));
+        flushEntityManager();
+
+        final var stored = database.getPackageDefinitions(List.of(REFERENCE, other, new PackageRef("unknown")));
+
+        assertThat(created).hasSize(2);
+        assertThat(stored).containsExactlyInAnyOrderElementsOf(created);
+    }
+
+    @Test
+    void rejectsDuplicatePackageDefinitions() {
+        database.createPackageDefinition(REFERENCE);
+        database.createPackageDefinition(REFERENCE);
+
+        assertThatThrownBy(this::flushEntityManager).isInstanceOf(PersistenceException.class);
+    }
+
     @Test
     void findsPackagesCaseInsensitiveByFragment() {
         final var pkg = database.createPackageDefinition(REFERENCE);
@@ -53,6 +90,58 @@ class PersistentDatabaseTest {
         assertThat(found).contains(pkg);
     }
 
+    @Test
+    void ranksPackagesByMatchOnWordStart() {
+        final var inner = database.createPackageDefinition(new PackageRef("npm/slang"));
+        final var prefix = database.createPackageDefinition(new PackageRef("maven/org/Languages"));
+        final var word = database.createPackageDefinition(new PackageRef("maven/org/lang"));
+        database.createPackageDefinition(new PackageRef("maven/org/other"));
+        flushEntityManager();
+
+        final var found = database.findPackageDefinitions("LANG");
+
+        assertThat(found).containsExactly(word, prefix, inner);
+    }
+
+    @Test
+    void ranksPackagesWithSeveralMatchingWordsOnce() {
+        for (var i = 0; i < 45; i++) {
+            database.createPackageDefinition(new PackageRef("p" + i + "/lang/langa/langb/langc/langd"));
+        }
+        final var later = new ArrayList<Package>();
+        for (var i = 0; i < 5; i++) {
+            later.add(database.createPackageDefinition(new PackageRef("q" + i + "/langz")));
+        }
+        final var inner = database.createPackageDefinition(new PackageRef("npm/slang"));
+        flushEntityManager();
+
+        final var found = database.findPackageDefinitions("lang");
+
+        assertThat(found).hasSize(50).containsAll(later).doesNotContain(inner);
+    }
+
+    @Test
+    void findsPackagesByFragmentAcrossWords() {
+        final var pkg = database.createPackageDefinition(new PackageRef("maven/org/commons-lang"));
+        database.createPackageDefinition(new PackageRef("maven/org/commons/lang"));
+        flushEntityManager();
+
+        final var found = database.findPackageDefinitions("ns-la");
+
+        assertThat(found).containsExactly(pkg);
+    }
+
+    @Test
+    void matchesWildcardCharactersLiterally() {
+        final var pkg = database.createPackageDefinition(new PackageRef("pypi/my_package"));
+        database.createPackageDefinition(new PackageRef("pypi/my-package"));
+        flushEntityManager();
+
+        final var found = database.findPackageDefinitions("y_pack");
+
+        assertThat(found).containsExactly(pkg);
+    }
+
     @Test
     void storesProjects() {
         final var project = database.createProject();
@@ -69,17 +158,67 @@ class PersistentDatabaseTest {
                 .setTitle("Is an older MATCHing name");
         database.createProject().setTitle("Is quite another name");
         final var firstMatch = database.createProject()
-                .setTitle("Is the expected first matching project");
+                .setTitle("Is the expected first matching project")
+                .setLastUpdate(Instant.now());
         database.createProject();
         flushEntityManager();
 
-        final var matches = database.findProjects("match");
+        final var matches = database.findProjects("match", null, null, 50);
 
         assertThat(matches).hasSize(2);
         assertThat(matches.get(0)).isEqualTo(firstMatch);
         assertThat(matches.get(1)).isEqualTo(caseMatch);
     }
 
+    @Test
+    void pagesThroughProjectsByLastUpdate() {
+        final var older = database.createProject().setLastUpdate(Instant.parse("2021-01-01T00:00:00Z"));
+        final var notUpdated = database.createProject();
+        final var recent = database.createProject().setLastUpdate(Instant.parse("2021-02-01T00:00:00Z"));
+        final var recentNewer = database.createProject().setLastUpdate(Instant.parse("2021-02-01T00:00:00Z"));
+        final var notUpdatedNewer = database.createProject();
+        flushEntityManager();
+
+        final var first = findProjectsAfter(null, 2);
+        final var second = findProjectsAfter(first.get(1), 2);
+        final var third = findProjectsAfter(second.get(1), 2);
+
+        assertThat(first).containsExactlyInAnyOrder(recent, recentNewer);
+        assertThat(second.get(0)).isEqualTo(older);
+        assertThat(List.of(second.get(1), third.get(0))).containsExactlyInAnyOrder(notUpdated, notUpdatedNewer);
+        assertThat(third).hasSize(1);
+    }
+
+    @Test
+    void pagesThroughProjectsFromPositionOfLastProject() {
+        final var older = database.createProject().setLastUpdate(Instant.parse("2021-01-01T00:00:00Z"));
+        final var recent = database.createProject().setLastUpdate(Instant.parse("2021-02-01T00:00:00Z"));
+        flushEntityManager();
+        final var lastUpdate = recent.getLastUpdate().orElseThrow();
+
+        recent.setLastUpdate(Instant.parse("2021-03-01T00:00:00Z"));
+        flushEntityManager();
+        final var next = database.findProjects("", lastUpdate, recent.getId(), 2);
+
+        assertThat(next).containsExactly(older);
+    }
+
+    private List<Project> findProjectsAfter(@NullOr Project last, int limit) {
+        return (last != null)
+                ? database.findProjects("", last.getLastUpdate().orElse(null), last.getId(), limit)
+                : database.findProjects("", null, null, limit);
+    }
+
+    @Test
+    void findsProjectsBeyondFixedLimit() {
+        for (var i = 0; i < 60; i++) {
+            database.createProject().setTitle("Project " + i);
+        }
+        flushEntityManager();
+
+        assertThat(database.findProjects("PROJECT", null, null, 100)).hasSize(60);
+    }
+
     @Test
     void storesDependencies() {
         final var project = database.createProject();
@@ -94,6 +233,70 @@ class PersistentDatabaseTest {
         assertThat(stored.getDependency(DEPENDENCY_ID)).contains(dependency);
     }
 
+    @Test
+    void storesDependenciesInBulk() {
+        final var project = database.createProject();
+        final var pkg = database.createPackageDefinition(REFERENCE);
+        final var first = new Dependency(DEPENDENCY_ID, TITLE).setPackage(pkg).setVersion("1.0").setLicense("MIT");
+        final var second = new Dependency("Other", "Other title");
+
+        final var created = database.createDependencies(project, List.of(first, second));
+        created.forEach(project::addDependency);
+        flushEntityManager();
+
+        //noinspection OptionalGetWithoutIsPresent
+        final var stored = database.getProject(project.getId()).get();
+        assertThat(created).containsExactly(first, second);
+        final var dependency = stored.getDependency(DEPENDENCY_ID).orElseThrow();
+        assertThat(dependency).isNotSameAs(first);
+        assertThat(dependency.getTitle()).isEqualTo(TITLE);
+        assertThat(dependency.getPackage()).contains(pkg);
+        assertThat(dependency.getVersion()).isEqualTo("1.0");
+        assertThat(dependency.getLicense()).isEqualTo("MIT");
+        assertThat(stored.getDependency("Other")).isPresent();
+    }
+
+    @Test
+    void listsDependencySummaries() {
+        final var project = database.createProject();
+        final var pkg = database.createPackageDefinition(REFERENCE);
+        final var dependency = database.createDependency(project, DEPENDENCY_ID, TITLE)
+                .setPackage(pkg).setPurl(PURL).setVersion("1.0").setLicense("MIT")
+                .setViolations(List.of("Violation"));
+        project.addDependency(dependency);
+        project.exempt(dependency, "Rationale");
+        project.postProcess();
+        flushEntityManager();
+
+        final var summaries = database.findDependencySummaries(project);
+
+        assertThat(summaries).hasSize(1);
+        final var summary = summaries.get(0);
+        assertThat(summary.getKey()).isEqualTo(DEPENDENCY_ID);
+        assertThat(summary.getTitle()).isEqualTo(TITLE);
+        assertThat(summary.getPurl()).isEqualTo(PURL.canonicalize());
+        assertThat(summary.getVersion()).isEqualTo("1.0");
+        assertThat(summary.getLicense()).isEqualTo("MIT");
+        assertThat(summary.getIssueCount()).isEqualTo(1);
+        assertThat(summary.getIsRoot()).isTrue();
+        assertThat(summary.getIsDelivered()).isTrue();
+        assertThat(summary.getIsDevelopment()).isFalse();
+        assertThat(summary.getExemption()).isEqualTo("Rationale");
+    }
+
+    @Test
+    void listsDependencySummariesByTitle() {
+        final var project = database.createProject();
+        project.addDependency(database.createDependency(project, "B", "beta"));
+        project.addDependency(database.createDependency(project, "C", "Gamma"));
+        project.addDependency(database.createDependency(project, "A", "Alpha"));
+        flushEntityManager();
+
+        final var summaries = database.findDependencySummaries(project);
+
+        assertThat(summaries).extracting(DependencySummary::getKey).containsExactly("A", "B", "C");
+    }
+
     @Test
     void findsDependencyByPackageDefinition() {
         final var project = database.createProject();
@@ -108,6 +311,25 @@ class PersistentDatabaseTest {
         assertThat(result).isEqualTo(project);
     }
 
+    @Test
+    void storesImportedKeyOfDependencyMatchedOnPackageUrl() {
+        final var project = database.createProject();
+        project.addDependency(database.createDependency(project, "Old", TITLE).setPurl(PURL));
+        flushEntityManager();
+
+        //noinspection OptionalGetWithoutIsPresent
+        final var stored = database.getProject(project.getId()).get();
+        final var update = new ProjectUpdate(stored, database);
+        update.stage(DEPENDENCY_ID, TITLE).setPurl(PURL);
+        update.merge();
+        flushEntityManager();
+
+        //noinspection OptionalGetWithoutIsPresent
+        final var dependencies = database.getProject(project.getId()).get().getDependencies();
+        assertThat(dependencies).hasSize(1);
+        assertThat(dependencies.iterator().next().getKey()).isEqualTo(DEPENDENCY_ID);
+    }
+
     @Test
     void storesRelations() {
         final var project = database.createProject();
@@ -127,6 +349,119 @@ class PersistentDatabaseTest {
         assertThat(dep.getUsages()).contains(dep);
     }
 
+    @Test
+    void loadsProjectGraphInFixedNumberOfQueries() {
+        final var small = createProjectGraph(2);
+        final var large = createProjectGraph(20);
+        flushEntityManager();
+        final var statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+
+        statistics.clear();
+        visitGraph(database.getProjectGraph(small).orElseThrow());
+        final var smallQueries = statistics.getPrepareStatementCount();
+        entityManager.clear();
+        statistics.clear();
+        final var graph = database.getProjectGraph(large).orElseThrow();
+        visitGraph(graph);
+        final var largeQueries = statistics.getPrepareStatementCount();
+        statistics.setStatisticsEnabled(false);
+
+        assertThat(graph.getDependencies()).hasSize(20);
+        assertThat(largeQueries).isEqualTo(smallQueries);
+    }
+
+    private UUID createProjectGraph(int size) {
+        final var project = database.createProject();
+        Dependency parent = null;
+        for (var i = 0; i < size; i++) {
+            final var pkg = database.createPackageDefinition(new PackageRef("maven/graph/package" + size + '.' + i))
+                    .exemptLicense("MIT");
+            final var dependency = database.createDependency(project, "Dep" + i, TITLE)
+                    .setPackage(pkg)
+                    .setViolations(List.of("Violation"));
+            project.addDependency(dependency);
+            if (parent != null) {
+                project.addRelationship(parent, dependency, Relation.Relationship.DYNAMIC_LINK);
+            }
+            parent = dependency;
+        }
+        return project.getId();
+    }
+
+    private void visitGraph(Project project) {
+        project.getDependencies().forEach(dep -> {
+            dep.getPackage().orElseThrow().getLicenseExemptions().size();
+            dep.getRelations().forEach(relation -> relation.getTarget().getTitle());
+            dep.getUsages().size();
+            dep.getViolations().size();
+        });
+    }
+
+    @Test
+    void storesStrongestUsageOfDependency() {
+        final var project = database.createProject();
+        final var parent = database.createDependency(project, "Parent", TITLE);
+        final var dependency = database.createDependency(project, DEPENDENCY_ID, TITLE);
+        project.addDependency(parent).addDependency(dependency)
+                .addRelationship(parent, dependency, Relation.Relationship.STATIC_LINK)
+                .postProcess();
+        flushEntityManager();
+
+        //noinspection OptionalGetWithoutIsPresent
+        final var dep = database.getProject(project.getId()).get().getDependency(DEPENDENCY_ID).get();
+
+        assertThat(dep.getStrongestUsage()).contains(Relation.Relationship.STATIC_LINK);
+    }
+
+    @Test
+    void storesViolationsOfDependency() {
+        final var project = database.createProject();
+        final var dependency = database.createDependency(project, DEPENDENCY_ID, TITLE);
+        project.addDependency(dependency.setViolations(List.of("First", "Second")));
+        flushEntityManager();
+
+        //noinspection OptionalGetWithoutIsPresent
+        final var dep = database.getProject(project.getId()).get().getDependency(DEPENDENCY_ID).get();
+
+        assertThat(dep.getViolations()).containsExactly("First", "Second");
+        assertThat(dep.getIssueCount()).isEqualTo(2);
+    }
+
+    @Test
+    void pagesThroughProjectIds() {
+        final var ids = new ArrayList<UUID>();
+        for (var i = 0; i < 5; i++) {
+            ids.add(database.createProject().getId());
+        }
+        flushEntityManager();
+
+        final var first = database.findProjectIds(null, 3);
+        final var second = database.findProjectIds(first.get(2), 3);
+
+        assertThat(database.countProjects()).isEqualTo(5);
+        assertThat(first).hasSize(3);
+        assertThat(second).hasSize(2);
+        assertThat(first).doesNotContainAnyElementsOf(second);
+        assertThat(Stream.concat(first.stream(), second.stream())).containsExactlyInAnyOrderElementsOf(ids);
+    }
+
+    @Test
+    void findsProjectsUsingPackage() {
+        final var pkg = database.createPackageDefinition(REFERENCE);
+        final var project = database.createProject();
+        final var other = database.createProject();
+        project.addDependency(database.createDependency(project, DEPENDENCY_ID, TITLE).setPackage(pkg))
+                .addDependency(database.createDependency(project, "Other", TITLE).setPackage(pkg));
+        other.addDependency(database.createDependency(other, DEPENDENCY_ID, TITLE));
+        flushEntityManager();
+
+        final var projects = database.findProjectsUsing(pkg);
+
+        assertThat(projects).containsExactly(project);
+    }
+
     @Test
     void findsEnclosingProjectForDependency() {
         final var project = database.createProject();
@@ -144,16 +479,64 @@ class PersistentDatabaseTest {
     }
 
     @Test
-    void forcesRemovalOfDependenciesForProject() {
+    void deletesDependencies() {
         final var project = database.createProject();
-        final var dependency = database.createDependency(project, DEPENDENCY_ID, TITLE);
-        project.addDependency(dependency);
-        database.deleteDependencies(project);
+        final var dependency = database.createDependency(project, DEPENDENCY_ID, TITLE).setViolations(List.of("Violation"));
+        final var other = database.createDependency(project, "Other", TITLE);
+        project.addDependency(dependency).addDependency(other);
+        project.addRelationship(other, dependency, Relation.Relationship.DYNAMIC_LINK);
+        flushEntityManager();
+
+        //noinspection OptionalGetWithoutIsPresent
+        final var stored = database.getProject(project.getId()).get();
+        final var dep = stored.getDependency(DEPENDENCY_ID).orElseThrow();
+        final var remaining = stored.getDependency("Other").orElseThrow();
+        remaining.getRelations().clear();
+        stored.getDependencies().remove(dep);
+        database.deleteDependencies(List.of(dep));
         flushEntityManager();
 
         //noinspection OptionalGetWithoutIsPresent
         final var proj = database.getProject(project.getId()).get();
-        assertThat(proj.getDependencies()).isEmpty();
+        assertThat(proj.getDependencies()).hasSize(1);
+        assertThat(proj.getDependency("Other").orElseThrow().getRelations()).isEmpty();
+    }
+
+    @Test
+    void deletesDependenciesDroppedByImport() {
+        final var project = database.createProject();
+        final var parent = database.createDependency(project, "Parent", TITLE);
+        final var dropped = database.createDependency(project, DEPENDENCY_ID, TITLE).setViolations(List.of("Violation"));
+        project.addDependency(parent).addDependency(dropped)
+                .addRelationship(parent, dropped, Relation.Relationship.STATIC_LINK)
+                .addRelationship(dropped, parent, Relation.Relationship.DYNAMIC_LINK);
+        flushEntityManager();
+
+        //noinspection OptionalGetWithoutIsPresent
+        final var stored = database.getProjectGraph(project.getId()).get();
+        final var update = new ProjectUpdate(stored, database);
+        update.stage("Parent", TITLE);
+        update.merge();
+        stored.postProcess();
+        flushEntityManager();
+
+        //noinspection OptionalGetWithoutIsPresent
+        final var proj = database.getProject(project.getId()).get();
+        assertThat(proj.getDependencies()).hasSize(1);
+        final var remaining = proj.getDependency("Parent").orElseThrow();
+        assertThat(remaining.getRelations()).isEmpty();
+        assertThat(remaining.getUsages()).isEmpty();
+        assertThat(entityManager.getEntityManager()
+                .createNativeQuery("SELECT COUNT(*) FROM dependency_violations").getSingleResult())
+                .isEqualTo(BigInteger.ZERO);
+    }
+
+    private static PackageURL purlOf(String purl) {
+        try {
+            return new PackageURL(purl);
+        } catch (MalformedPackageURLException e) {
+            throw new IllegalArgumentException(e);
+        }
     }
 
     private void flushEntityManager() {
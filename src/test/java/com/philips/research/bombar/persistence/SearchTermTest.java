@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2020-2021, Koninklijke Philips N.V., https://www.philips.com
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.philips.research.bombar.persistence;
+
+import com.philips.research.bombar.core.domain.PackageRef;
+import nl.jqno.equalsverifier.EqualsVerifier;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SearchTermTest {
+    @Test
+    void splitsIntoLowercaseWords() {
+        assertThat(SearchTerm.words("Maven/Org.Apache/commons-LANG3@1.0")).containsExactly("maven", "org", "apache", "commons", "lang3", "1", "0");
+    }
+
+    @Test
+    void derivesSuffixesOfAllWords() {
+        final var terms = SearchTerm.of(new PackageRef("npm/Ab"));
+
+        assertThat(terms).containsExactlyInAnyOrder(
+                new SearchTerm("npm", true), new SearchTerm("pm", false), new SearchTerm("m", false),
+                new SearchTerm("ab", true), new SearchTerm("b", false));
+    }
+
+    @Test
+    void truncatesLongTerms() {
+        final var word = "x".repeat(SearchTerm.MAX_LENGTH + 10);
+
+        final var terms = SearchTerm.of(new PackageRef(word));
+
+        assertThat(terms).contains(new SearchTerm("x".repeat(SearchTerm.MAX_LENGTH), true));
+        assertThat(terms).allMatch(term -> term.getTerm().length() <= SearchTerm.MAX_LENGTH);
+    }
+
+    @Test
+    void implementsEquals() {
+        EqualsVerifier.forClass(SearchTerm.class)
+                .withNonnullFields("term")
+                .verify();
+    }
+}